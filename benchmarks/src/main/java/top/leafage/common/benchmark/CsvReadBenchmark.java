@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import top.leafage.common.poi.CsvFormat;
+import top.leafage.common.poi.CsvReader;
+import top.leafage.common.poi.ExcelReader;
+import top.leafage.common.poi.ReadOptions;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Reads the same wide rows from a csv file and from a xlsx file with the streaming parser,
+ * and from a csv file on disk sequentially and memory-mapped in parallel.
+ *
+ * @author wq li
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CsvReadBenchmark {
+
+    @Param({"100000"})
+    private int rows;
+
+    private byte[] csv;
+    private byte[] xlsx;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        csv = Workbooks.wideCsv(rows);
+        xlsx = Workbooks.wide(rows);
+        file = Files.createTempFile("wide", ".csv");
+        Files.write(file, csv);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void readCsv(Blackhole blackhole) {
+        CsvReader.read(new ByteArrayInputStream(csv), WideRow.class).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void readCsvFile(Blackhole blackhole) {
+        CsvReader.read(file, WideRow.class).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void streamCsvFile(Blackhole blackhole) {
+        try (Stream<WideRow> stream = CsvReader.stream(file, WideRow.class, CsvFormat.CSV, ReadOptions.defaults())) {
+            stream.unordered().forEach(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void readXlsx(Blackhole blackhole) {
+        ExcelReader.readStreaming(new ByteArrayInputStream(xlsx), WideRow.class).forEach(blackhole::consume);
+    }
+}
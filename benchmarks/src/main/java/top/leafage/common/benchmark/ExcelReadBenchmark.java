@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import top.leafage.common.poi.ExcelReader;
+import top.leafage.common.poi.reactive.ReactiveExcelReader;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads narrow (2 columns) and wide (12 columns) sheets with the usermodel reader, the streaming parser
+ * and the reactive reader.
+ * <p>
+ * The usermodel reader holds the whole workbook in memory, reading a million wide rows with it needs a
+ * heap of several gigabytes.
+ *
+ * @author wq li
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ExcelReadBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    @Param({"narrow", "wide"})
+    private String shape;
+
+    private byte[] workbook;
+    private Class<?> rowClass;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean wide = "wide".equals(shape);
+        workbook = wide ? Workbooks.wide(rows) : Workbooks.narrow(rows);
+        rowClass = wide ? WideRow.class : NarrowRow.class;
+    }
+
+    @Benchmark
+    public void read(Blackhole blackhole) {
+        ExcelReader.read(new ByteArrayInputStream(workbook), rowClass).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void readStreaming(Blackhole blackhole) {
+        ExcelReader.readStreaming(new ByteArrayInputStream(workbook), rowClass).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void reactiveRead(Blackhole blackhole) {
+        ReactiveExcelReader.read(new InMemoryFilePart("rows.xlsx", workbook), rowClass).block()
+                .forEach(blackhole::consume);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.benchmark;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.*;
+import top.leafage.common.data.jpa.JpaCrudService;
+import top.leafage.common.data.reactive.ReactiveCrudService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses a filter string into R2DBC criteria and into a JPA predicate.
+ * <p>
+ * The JPA side runs against {@link JpaStubs}, so it measures the parsing and value conversion
+ * of {@code buildPredicate}, not a persistence provider.
+ *
+ * @author wq li
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FilterBenchmark {
+
+    @Param({"age:gt:18,status:eq:active,name:like:john,score:lte:99.5,enabled:ne:false"})
+    private String filters;
+
+    private final ReactiveCrudService<Object, Object> reactiveService = new ReactiveCrudService<>() {
+    };
+    private final JpaCrudService<Object, Object> jpaService = new JpaCrudService<>() {
+    };
+
+    private CriteriaBuilder criteriaBuilder;
+    private Root<FilterEntity> root;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        criteriaBuilder = JpaStubs.criteriaBuilder();
+        root = JpaStubs.root(FilterEntity.class);
+    }
+
+    @Benchmark
+    public Object buildCriteria() {
+        return reactiveService.buildCriteria(filters, FilterEntity.class);
+    }
+
+    @Benchmark
+    public Object buildPredicate() {
+        return jpaService.buildPredicate(filters, criteriaBuilder, root);
+    }
+}
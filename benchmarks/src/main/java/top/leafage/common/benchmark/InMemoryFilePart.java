@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.benchmark;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.multipart.FilePart;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * An uploaded file held in memory, its content emitted in chunks like a multipart upload.
+ *
+ * @author wq li
+ */
+public class InMemoryFilePart implements FilePart {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final String filename;
+    private final byte[] content;
+    private final HttpHeaders headers = new HttpHeaders();
+
+    public InMemoryFilePart(String filename, byte[] content) {
+        this.filename = filename;
+        this.content = content;
+        headers.setContentLength(content.length);
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    @Override
+    public String filename() {
+        return filename;
+    }
+
+    @Override
+    public Mono<Void> transferTo(Path dest) {
+        return DataBufferUtils.write(content(), dest);
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public HttpHeaders headers() {
+        return headers;
+    }
+
+    @Override
+    public Flux<DataBuffer> content() {
+        return Flux.range(0, (content.length + CHUNK_SIZE - 1) / CHUNK_SIZE)
+                .map(i -> DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(content, i * CHUNK_SIZE,
+                        Math.min(CHUNK_SIZE, content.length - i * CHUNK_SIZE))));
+    }
+}
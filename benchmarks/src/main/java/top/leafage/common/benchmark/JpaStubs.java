@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.benchmark;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.BeanUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+
+/**
+ * Minimal JPA criteria objects, enough for building predicates without a persistence provider.
+ * Paths resolve their java type from the entity properties, every predicate is the same stub.
+ *
+ * @author wq li
+ */
+public final class JpaStubs {
+
+    private static final Predicate PREDICATE = proxy(Predicate.class, (p, method, args) -> objectMethod(p, method.getName(), args));
+
+    private JpaStubs() {
+        // Prevent instantiation
+    }
+
+    /**
+     * A criteria builder whose predicate methods all return a stub predicate.
+     *
+     * @return The criteria builder.
+     */
+    public static CriteriaBuilder criteriaBuilder() {
+        return proxy(CriteriaBuilder.class, (p, method, args) -> Predicate.class.isAssignableFrom(method.getReturnType())
+                ? PREDICATE : objectMethod(p, method.getName(), args));
+    }
+
+    /**
+     * A root of an entity class.
+     *
+     * @param entityClass The entity class.
+     * @param <T>         The entity type.
+     * @return The root.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Root<T> root(Class<T> entityClass) {
+        return proxy(Root.class, (p, method, args) -> {
+            if ("get".equals(method.getName()) && args.length == 1 && args[0] instanceof String field) {
+                PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(entityClass, field);
+                if (descriptor == null) {
+                    throw new IllegalArgumentException("Unknown attribute: " + field);
+                }
+                return path(descriptor.getPropertyType());
+            }
+            return objectMethod(p, method.getName(), args);
+        });
+    }
+
+    private static Path<?> path(Class<?> javaType) {
+        return proxy(Path.class, (p, method, args) -> switch (method.getName()) {
+            case "getJavaType" -> javaType;
+            case "as" -> p;
+            default -> objectMethod(p, method.getName(), args);
+        });
+    }
+
+    private static Object objectMethod(Object proxy, String name, Object[] args) {
+        return switch (name) {
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "stub";
+            default -> throw new UnsupportedOperationException(name);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(JpaStubs.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
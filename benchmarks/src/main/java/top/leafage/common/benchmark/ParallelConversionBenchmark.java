@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import top.leafage.common.poi.ExcelReader;
+import top.leafage.common.poi.ReadOptions;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming read of a wide sheet, rows converted on the parser thread ({@code threads = 0})
+ * or in parallel on 1 to N worker threads.
+ *
+ * @author wq li
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParallelConversionBenchmark {
+
+    @Param({"100000"})
+    private int rows;
+
+    @Param({"0", "1", "2", "4", "8"})
+    private int threads;
+
+    private byte[] workbook;
+    private ExecutorService executor;
+    private ReadOptions options;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workbook = Workbooks.wide(rows);
+        if (threads == 0) {
+            options = ReadOptions.defaults();
+        } else {
+            executor = Executors.newFixedThreadPool(threads);
+            options = ReadOptions.builder().conversionExecutor(executor).build();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void read(Blackhole blackhole) {
+        ExcelReader.readStreaming(new ByteArrayInputStream(workbook), WideRow.class, options).forEach(blackhole::consume);
+    }
+}
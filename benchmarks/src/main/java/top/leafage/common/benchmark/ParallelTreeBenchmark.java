@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import top.leafage.common.data.converter.ModelToTreeNodeConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts a multi-million row list into a tree sequentially and in parallel, on a fork-join pool of
+ * {@code parallelism} workers, to compare across core counts. Pools larger than the machine only add
+ * overhead, read the results up to the number of available processors.
+ * <p>
+ * So far this has only been run on a single-core machine. There {@code toTreeParallel} at parallelism 1 took
+ * about 1.4 times as long as {@code toTree} (406 against 284 ms/op), the parallel linking does extra work
+ * that has to be paid back by more cores. The speedup on more cores is not measured yet.
+ *
+ * @author wq li
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParallelTreeBenchmark {
+
+    private static final Set<String> META = Set.of("path", "sort");
+
+    @Param({"1000000"})
+    private int nodes;
+
+    @Param({"1", "2", "4", "8"})
+    private int parallelism;
+
+    private List<TreeRow> rows;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rows = new ArrayList<>(nodes);
+        for (int i = 0; i < nodes; i++) {
+            // 前 10 个为根节点
+            Long superiorId = i < 10 ? null : (long) (i / 10 - 1);
+            rows.add(new TreeRow((long) i, "node" + i, superiorId, "/" + i, i % 100));
+        }
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public void toTree(Blackhole blackhole) {
+        blackhole.consume(ModelToTreeNodeConverter.toTree(rows, META));
+    }
+
+    @Benchmark
+    public void toTreeParallel(Blackhole blackhole) {
+        // 在池内调用，并行流使用该池
+        blackhole.consume(pool.submit(() -> ModelToTreeNodeConverter.toTreeParallel(rows, META)).join());
+    }
+}
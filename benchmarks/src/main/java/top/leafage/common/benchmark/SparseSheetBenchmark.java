@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import top.leafage.common.poi.ExcelReader;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads a sparse sheet, half of the rows blank and most columns not mapped,
+ * with the streaming parser and with the usermodel reader.
+ *
+ * @author wq li
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SparseSheetBenchmark {
+
+    @Param({"100000"})
+    private int rows;
+
+    private byte[] workbook;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workbook = Workbooks.sparse(rows);
+    }
+
+    @Benchmark
+    public void readStreaming(Blackhole blackhole) {
+        ExcelReader.readStreaming(new ByteArrayInputStream(workbook), NarrowRow.class).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void read(Blackhole blackhole) {
+        ExcelReader.read(new ByteArrayInputStream(workbook), NarrowRow.class).forEach(blackhole::consume);
+    }
+}
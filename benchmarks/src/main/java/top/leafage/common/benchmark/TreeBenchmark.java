@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import top.leafage.common.data.converter.AbstractTreeNodeConverter;
+import top.leafage.common.data.converter.ModelToTreeNodeConverter;
+import top.leafage.common.data.domain.TreeNode;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Converts a flat list of rows into a tree, every node having ten children.
+ * <p>
+ * {@code buildTree} links nodes that are already created, against {@code buildTreeGroupingBy}, the former
+ * implementation grouping children by superior id; run with {@code -prof gc} to compare allocation per op.
+ *
+ * @author wq li
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TreeBenchmark {
+
+    private static final Set<String> META = Set.of("path", "sort");
+
+    @Param({"10000", "100000", "300000"})
+    private int nodes;
+
+    private List<TreeRow> rows;
+    private List<TreeNode<Long>> treeNodes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rows = new ArrayList<>(nodes);
+        for (int i = 0; i < nodes; i++) {
+            // 前 10 个为根节点
+            Long superiorId = i < 10 ? null : (long) (i / 10 - 1);
+            rows.add(new TreeRow((long) i, "node" + i, superiorId, "/" + i, i % 100));
+        }
+        treeNodes = rows.stream().<TreeNode<Long>>map(row -> AbstractTreeNodeConverter.createNode(row, null)).toList();
+    }
+
+    @Benchmark
+    public void toTree(Blackhole blackhole) {
+        blackhole.consume(ModelToTreeNodeConverter.toTree(rows));
+    }
+
+    @Benchmark
+    public void toTreeWithMeta(Blackhole blackhole) {
+        blackhole.consume(ModelToTreeNodeConverter.toTree(rows, META));
+    }
+
+    @Benchmark
+    public void buildTree(Blackhole blackhole) {
+        blackhole.consume(AbstractTreeNodeConverter.buildTree(treeNodes));
+    }
+
+    @Benchmark
+    public void buildTreeGroupingBy(Blackhole blackhole) {
+        Map<Long, List<TreeNode<Long>>> childrenMap = treeNodes.stream()
+                .filter(n -> n.getSuperiorId() != null)
+                .collect(Collectors.groupingBy(TreeNode::getSuperiorId));
+        blackhole.consume(treeNodes.stream()
+                .peek(node -> node.setChildren(childrenMap.getOrDefault(node.getId(), Collections.emptyList())))
+                .filter(node -> node.getSuperiorId() == null)
+                .toList());
+    }
+}
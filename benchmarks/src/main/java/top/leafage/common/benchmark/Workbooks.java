@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.benchmark;
+
+import top.leafage.common.poi.ExcelWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.IntStream;
+
+/**
+ * Generates the workbooks read by the benchmarks.
+ *
+ * @author wq li
+ */
+public final class Workbooks {
+
+    private Workbooks() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Generates a xlsx file of {@link WideRow}s, the header row included.
+     *
+     * @param rows The number of data rows.
+     * @return The xlsx file content.
+     */
+    public static byte[] wide(int rows) {
+        Iterator<WideRow> iterator = IntStream.range(0, rows).mapToObj(Workbooks::wideRow).iterator();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExcelWriter.writeStreaming(out, WideRow.class, iterator, ExcelWriter.DEFAULT_SHEET_NAME);
+        return out.toByteArray();
+    }
+
+    /**
+     * Generates a xlsx file of {@link NarrowRow}s, the header row included.
+     *
+     * @param rows The number of data rows.
+     * @return The xlsx file content.
+     */
+    public static byte[] narrow(int rows) {
+        Iterator<NarrowRow> iterator = IntStream.range(0, rows).mapToObj(i -> {
+            NarrowRow row = new NarrowRow();
+            row.setName("user" + i);
+            row.setAge(18 + i % 60);
+            return row;
+        }).iterator();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExcelWriter.writeStreaming(out, NarrowRow.class, iterator, ExcelWriter.DEFAULT_SHEET_NAME);
+        return out.toByteArray();
+    }
+
+    /**
+     * Generates a sparse xlsx file of {@link WideRow}s: every other row is blank, and most columns
+     * are not read when mapped to {@link NarrowRow}.
+     *
+     * @param rows The number of data rows, blank rows included.
+     * @return The xlsx file content.
+     */
+    public static byte[] sparse(int rows) {
+        Iterator<WideRow> iterator = IntStream.range(0, rows)
+                .mapToObj(i -> i % 2 == 0 ? wideRow(i) : new WideRow()).iterator();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExcelWriter.writeStreaming(out, WideRow.class, iterator, ExcelWriter.DEFAULT_SHEET_NAME);
+        return out.toByteArray();
+    }
+
+    /**
+     * Generates a csv file of the same rows as {@link #wide(int)}, the header row included.
+     *
+     * @param rows The number of data rows.
+     * @return The UTF-8 csv content.
+     */
+    public static byte[] wideCsv(int rows) {
+        StringBuilder csv = new StringBuilder("name,email,address,age,accountId,score,balance,enabled,department,"
+                + "level,version,remark\n");
+        for (int i = 0; i < rows; i++) {
+            WideRow row = wideRow(i);
+            csv.append(row.getName()).append(',').append(row.getEmail()).append(',').append(row.getAddress())
+                    .append(',').append(row.getAge()).append(',').append(row.getAccountId()).append(',')
+                    .append(row.getScore()).append(',').append(row.getBalance().toPlainString()).append(',')
+                    .append(row.getEnabled()).append(',').append(row.getDepartment()).append(',')
+                    .append(row.getLevel()).append(',').append(row.getVersion()).append(',')
+                    .append(row.getRemark() == null ? "" : row.getRemark()).append('\n');
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static WideRow wideRow(int i) {
+        WideRow row = new WideRow();
+        row.setName("user" + i);
+        row.setEmail("user" + i + "@example.com");
+        row.setAddress("No. " + i + " Example Road");
+        row.setAge(18 + i % 60);
+        row.setAccountId(1_000_000L + i);
+        row.setScore(i * 0.75);
+        row.setBalance(BigDecimal.valueOf(i, 2));
+        row.setEnabled(i % 3 != 0);
+        row.setDepartment("dept" + i % 20);
+        row.setLevel(i % 10);
+        row.setVersion((long) i % 7);
+        row.setRemark(i % 5 == 0 ? null : "remark " + i);
+        return row;
+    }
+}
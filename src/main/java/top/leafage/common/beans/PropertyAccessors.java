@@ -0,0 +1,393 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.beans;
+
+import org.springframework.beans.BeanUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Factory of property accessors.
+ * <p>
+ * Getters and setters are generated with {@link LambdaMetafactory} so the JIT can inline them like
+ * a direct call, falling back to {@link MethodHandle}s when the class can not be accessed that way.
+ * Accessors are resolved once per class and property. Records and classes bound through their constructor
+ * are supported by {@link #creator(Class)}.
+ *
+ * @author wq li
+ * @since 0.4.0
+ */
+public final class PropertyAccessors {
+
+    private static final ClassValue<ClassAccessors> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected ClassAccessors computeValue(Class<?> type) {
+            return new ClassAccessors();
+        }
+    };
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private PropertyAccessors() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Returns the getter of a property, record components included.
+     *
+     * @param clazz    The class declaring the property.
+     * @param property The property name.
+     * @return The getter, or null if the property is not readable.
+     */
+    public static Function<Object, Object> getter(Class<?> clazz, String property) {
+        ClassAccessors accessors = ACCESSORS.get(clazz);
+        return accessors.getters.computeIfAbsent(property, name -> Optional.ofNullable(createGetter(clazz, name)))
+                .orElse(null);
+    }
+
+    /**
+     * Returns the setter of a property.
+     *
+     * @param clazz    The class declaring the property.
+     * @param property The property name.
+     * @return The setter, or null if the property is not writable.
+     */
+    public static BiConsumer<Object, Object> setter(Class<?> clazz, String property) {
+        ClassAccessors accessors = ACCESSORS.get(clazz);
+        return accessors.setters.computeIfAbsent(property, name -> Optional.ofNullable(createSetter(clazz, name)))
+                .orElse(null);
+    }
+
+    /**
+     * Returns the type of a property, record components included.
+     *
+     * @param clazz    The class declaring the property.
+     * @param property The property name.
+     * @return The property type, or null if there is no such property.
+     */
+    public static Class<?> propertyType(Class<?> clazz, String property) {
+        if (clazz.isRecord()) {
+            RecordComponent component = recordComponent(clazz, property);
+            return component == null ? null : component.getType();
+        }
+        PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(clazz, property);
+        return descriptor == null ? null : descriptor.getPropertyType();
+    }
+
+    /**
+     * Returns the creator of a class: its default constructor, the canonical constructor of a record,
+     * or the single constructor whose parameter names are discoverable.
+     * <p>
+     * Parameter names of a class are only discoverable when it is compiled with {@code -parameters}. Without them
+     * the no-arg constructor is used if there is one, and the properties are populated with setters.
+     *
+     * @param clazz The class to instantiate.
+     * @param <T>   The type of the class.
+     * @return The creator.
+     * @throws IllegalArgumentException if the class has no usable constructor.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Creator<T> creator(Class<T> clazz) {
+        return (Creator<T>) ACCESSORS.get(clazz).creator(clazz);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> createGetter(Class<?> clazz, String property) {
+        Method method;
+        if (clazz.isRecord()) {
+            RecordComponent component = recordComponent(clazz, property);
+            method = component == null ? null : component.getAccessor();
+        } else {
+            PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(clazz, property);
+            method = descriptor == null ? null : descriptor.getReadMethod();
+        }
+        if (method == null) {
+            return null;
+        }
+
+        try {
+            MethodHandles.Lookup lookup = lookup(method.getDeclaringClass());
+            MethodHandle handle = lookup.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    handle,
+                    MethodType.methodType(wrap(method.getReturnType()), method.getDeclaringClass()));
+            return (Function<Object, Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            MethodHandle handle = unreflect(method).asType(MethodType.methodType(Object.class, Object.class));
+            return obj -> {
+                try {
+                    return handle.invokeExact(obj);
+                } catch (Throwable ex) {
+                    throw new RuntimeException("Failed to get field value: " + property, ex);
+                }
+            };
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> createSetter(Class<?> clazz, String property) {
+        PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(clazz, property);
+        Method method = descriptor == null ? null : descriptor.getWriteMethod();
+        if (method == null) {
+            return null;
+        }
+
+        try {
+            MethodHandles.Lookup lookup = lookup(method.getDeclaringClass());
+            MethodHandle handle = lookup.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    handle,
+                    MethodType.methodType(void.class, method.getDeclaringClass(), wrap(method.getParameterTypes()[0])));
+            return (BiConsumer<Object, Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            MethodHandle handle = unreflect(method)
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (obj, value) -> {
+                try {
+                    handle.invokeExact(obj, value);
+                } catch (Throwable ex) {
+                    throw new RuntimeException("Failed to set field value: " + property, ex);
+                }
+            };
+        }
+    }
+
+    private static RecordComponent recordComponent(Class<?> clazz, String property) {
+        for (RecordComponent component : clazz.getRecordComponents()) {
+            if (component.getName().equals(property)) {
+                return component;
+            }
+        }
+        return null;
+    }
+
+    private static MethodHandles.Lookup lookup(Class<?> clazz) throws IllegalAccessException {
+        return MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            method.trySetAccessible();
+            return MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Can not access method: " + method, e);
+        }
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    /**
+     * Creates instances of a class from constructor arguments.
+     * Classes with a default constructor have no parameters and are populated with setters afterwards.
+     *
+     * @param <T> The type of the class.
+     */
+    public static final class Creator<T> {
+
+        private static final Object[] NO_ARGS = new Object[0];
+
+        private final String[] parameterNames;
+        private final Class<?>[] parameterTypes;
+        private final Object[] defaults;
+        private final Supplier<Object> supplier;
+        private final MethodHandle handle;
+
+        private Creator(Constructor<T> constructor, String[] parameterNames) {
+            this.parameterNames = parameterNames;
+            this.parameterTypes = constructor.getParameterTypes();
+            this.defaults = new Object[parameterTypes.length];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                if (parameterTypes[i].isPrimitive()) {
+                    defaults[i] = defaultValue(parameterTypes[i]);
+                }
+            }
+
+            MethodHandle constructorHandle = constructorHandle(constructor);
+            this.supplier = parameterTypes.length == 0 ? supplier(constructor, constructorHandle) : null;
+            this.handle = constructorHandle.asSpreader(Object[].class, parameterTypes.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        }
+
+        /**
+         * The constructor parameter names, empty for a default constructor.
+         *
+         * @return parameter names.
+         */
+        public String[] parameterNames() {
+            return parameterNames.clone();
+        }
+
+        /**
+         * The constructor parameter types, empty for a default constructor.
+         *
+         * @return parameter types.
+         */
+        public Class<?>[] parameterTypes() {
+            return parameterTypes.clone();
+        }
+
+        /**
+         * The number of constructor parameters.
+         *
+         * @return parameter count.
+         */
+        public int parameterCount() {
+            return parameterTypes.length;
+        }
+
+        /**
+         * Creates an instance. A {@code null} argument of a primitive parameter is passed as its default value.
+         *
+         * @param args The constructor arguments, indexed like {@link #parameterNames()}.
+         * @return The new instance.
+         */
+        @SuppressWarnings("unchecked")
+        public T create(Object[] args) {
+            if (supplier != null) {
+                return (T) supplier.get();
+            }
+            for (int i = 0; i < args.length; i++) {
+                if (args[i] == null) {
+                    args[i] = defaults[i];
+                }
+            }
+            try {
+                return (T) handle.invokeExact(args);
+            } catch (Throwable e) {
+                throw new RuntimeException("Failed to create instance with arguments: " + Arrays.toString(args), e);
+            }
+        }
+
+        /**
+         * Creates an instance with the default constructor.
+         *
+         * @return The new instance.
+         */
+        public T create() {
+            return create(NO_ARGS);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Supplier<Object> supplier(Constructor<?> constructor, MethodHandle handle) {
+            Class<?> clazz = constructor.getDeclaringClass();
+            try {
+                MethodHandles.Lookup lookup = lookup(clazz);
+                CallSite site = LambdaMetafactory.metafactory(lookup, "get",
+                        MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class),
+                        lookup.unreflectConstructor(constructor),
+                        MethodType.methodType(clazz));
+                return (Supplier<Object>) site.getTarget().invoke();
+            } catch (Throwable e) {
+                MethodHandle generic = handle.asType(MethodType.methodType(Object.class));
+                return () -> {
+                    try {
+                        return generic.invokeExact();
+                    } catch (Throwable ex) {
+                        throw new RuntimeException("Failed to create instance: " + clazz, ex);
+                    }
+                };
+            }
+        }
+
+        private static MethodHandle constructorHandle(Constructor<?> constructor) {
+            try {
+                return lookup(constructor.getDeclaringClass()).unreflectConstructor(constructor);
+            } catch (IllegalAccessException e) {
+                try {
+                    constructor.trySetAccessible();
+                    return MethodHandles.lookup().unreflectConstructor(constructor);
+                } catch (IllegalAccessException ex) {
+                    throw new IllegalArgumentException("Can not access constructor: " + constructor, ex);
+                }
+            }
+        }
+
+        private static Object defaultValue(Class<?> type) {
+            try {
+                return MethodHandles.zero(type).invoke();
+            } catch (Throwable e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Accessors of a class, resolved lazily.
+     */
+    private static final class ClassAccessors {
+
+        private final Map<String, Optional<Function<Object, Object>>> getters = new ConcurrentHashMap<>();
+        private final Map<String, Optional<BiConsumer<Object, Object>>> setters = new ConcurrentHashMap<>();
+        // 构造器在第一次使用时解析，只读取属性的类不需要可用的构造器
+        private volatile Creator<?> creator;
+
+        private <T> Creator<?> creator(Class<T> clazz) {
+            Creator<?> result = creator;
+            if (result == null) {
+                Constructor<T> constructor;
+                try {
+                    constructor = BeanUtils.getResolvableConstructor(clazz);
+                } catch (IllegalStateException e) {
+                    throw new IllegalArgumentException("No usable constructor found: " + clazz, e);
+                }
+                String[] parameterNames = parameterNames(constructor);
+                if (parameterNames == null) {
+                    // 未使用 -parameters 编译时拿不到参数名，退回无参构造器和 setter
+                    try {
+                        constructor = clazz.getDeclaredConstructor();
+                        parameterNames = new String[0];
+                    } catch (NoSuchMethodException e) {
+                        throw new IllegalArgumentException("Constructor parameter names of " + clazz.getName()
+                                + " are not discoverable, compile it with -parameters or add a no-arg constructor", e);
+                    }
+                }
+                result = new Creator<>(constructor, parameterNames);
+                creator = result;
+            }
+            return result;
+        }
+
+        private static String[] parameterNames(Constructor<?> constructor) {
+            if (constructor.getParameterCount() == 0) {
+                return new String[0];
+            }
+            try {
+                return BeanUtils.getParameterNames(constructor);
+            } catch (IllegalStateException e) {
+                return null;
+            }
+        }
+    }
+}
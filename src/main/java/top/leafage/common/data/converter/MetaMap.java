@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.data.converter;
+
+import java.util.*;
+
+/**
+ * The meta of a tree node: the keys are the expand properties, one array shared by every node created by
+ * the same {@link TreeNodeFactory}, and each node only holds its values, instead of a hash map per node.
+ * <p>
+ * Null values are absent from the map. The map is modifiable like the {@link HashMap} it replaces: the first
+ * change copies it into a hash map owned by the node, the shared keys are never touched.
+ *
+ * @author wq li
+ * @since 0.4.0
+ */
+final class MetaMap extends AbstractMap<String, Object> {
+
+    private final String[] keys;
+    private final Object[] values;
+    private final int size;
+    // 写时复制，修改过的节点改用自己的 HashMap
+    private Map<String, Object> copy;
+
+    /**
+     * Creates the meta of a node.
+     *
+     * @param keys   The shared keys.
+     * @param values The values, indexed like the keys, null for absent.
+     * @param size   The number of non-null values.
+     */
+    MetaMap(String[] keys, Object[] values, int size) {
+        this.keys = keys;
+        this.values = values;
+        this.size = size;
+    }
+
+    @Override
+    public int size() {
+        return copy != null ? copy.size() : size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return copy != null ? copy.containsKey(key) : get(key) != null;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (copy != null) {
+            return copy.get(key);
+        }
+        // 键很少，顺序比较比哈希更快
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                return values[i];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        return copy().put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        return copy().remove(key);
+    }
+
+    @Override
+    public void clear() {
+        copy().clear();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (copy != null) {
+            return copy.entrySet();
+        }
+        return new AbstractSet<>() {
+            @Override
+            public int size() {
+                return MetaMap.this.size();
+            }
+
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                if (copy != null) {
+                    return copy.entrySet().iterator();
+                }
+                return new Iterator<>() {
+                    private int next = advance(0);
+                    private int last = -1;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < keys.length;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (next >= keys.length) {
+                            throw new NoSuchElementException();
+                        }
+                        last = next;
+                        next = advance(next + 1);
+                        return new SimpleEntry<>(keys[last], values[last]) {
+                            @Override
+                            public Object setValue(Object value) {
+                                put(getKey(), value);
+                                return super.setValue(value);
+                            }
+                        };
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (last < 0) {
+                            throw new IllegalStateException();
+                        }
+                        // 共享的数组不变，后续元素照常遍历
+                        copy().remove(keys[last]);
+                        last = -1;
+                    }
+                };
+            }
+        };
+    }
+
+    private Map<String, Object> copy() {
+        if (copy == null) {
+            Map<String, Object> map = new HashMap<>();
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != null) {
+                    map.put(keys[i], values[i]);
+                }
+            }
+            copy = map;
+        }
+        return copy;
+    }
+
+    private int advance(int from) {
+        int i = from;
+        while (i < keys.length && values[i] == null) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -53,11 +53,42 @@ public class ModelToTreeNodeConverter extends AbstractTreeNodeConverter {
      * @since 0.2.0
      */
     public static <T, ID> List<TreeNode<ID>> toTree(List<T> children, Set<String> meta) {
-        List<TreeNode<ID>> nodes = children.stream()
-                .<TreeNode<ID>>map(child -> createNode(child, meta))
-                .toList();
+        List<TreeNode<ID>> nodes = createNodes(children, meta);
 
         return buildTree(nodes);
     }
 
+    /**
+     * Converts a large list of child nodes into a tree structure in parallel.
+     *
+     * @param children the list of child nodes.
+     * @param <T>      the source type
+     * @param <ID>     the pk type
+     * @return the tree node collection.
+     * @since 0.4.0
+     */
+    public static <T, ID> List<TreeNode<ID>> toTreeParallel(List<T> children) {
+        return toTreeParallel(children, Collections.emptySet());
+    }
+
+    /**
+     * Converts a large list of child nodes into a tree structure in parallel, with additional properties.
+     * <p>
+     * Nodes are created with a parallel stream and linked by {@link #buildTreeParallel}, on the pool of the
+     * calling fork-join task or the common pool. The tree is the same as {@link #toTree(List, Set)} returns,
+     * in the same order.
+     *
+     * @param children the list of child nodes.
+     * @param meta     a set of additional properties to include.
+     * @param <T>      the source type
+     * @param <ID>     the pk type
+     * @return the tree node collection.
+     * @since 0.4.0
+     */
+    public static <T, ID> List<TreeNode<ID>> toTreeParallel(List<T> children, Set<String> meta) {
+        List<TreeNode<ID>> nodes = createNodesParallel(children, meta);
+
+        return buildTreeParallel(nodes);
+    }
+
 }
@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.data.converter;
+
+import top.leafage.common.data.domain.TreeNode;
+
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/**
+ * Holds a built tree as an immutable snapshot and applies single node changes to it incrementally.
+ * <p>
+ * A change never touches the current snapshot: the changed node and its ancestors are copied (path
+ * copying), every other subtree is shared with the previous snapshot, and the new roots are published
+ * with a single volatile write. Readers call {@link #tree()} without locking and keep a consistent tree
+ * for as long as they hold it; writers are serialized. A change costs about depth × fanout instead of
+ * rebuilding the whole tree.
+ * <p>
+ * The nodes given to the cache belong to it: their children lists are replaced by unmodifiable ones and
+ * nodes of a snapshot must not be changed through {@link TreeNode#setChildren}.
+ *
+ * @param <ID> the pk type
+ * @author wq li
+ * @since 0.4.0
+ */
+public class TreeCache<ID> {
+
+    private volatile List<TreeNode<ID>> roots;
+
+    // 写入方使用的索引：节点 id -> 实际的上级 id，根节点为 null
+    private final Map<ID, ID> superiors = new HashMap<>();
+
+    /**
+     * Creates a cache of the tree built from the nodes, see {@link AbstractTreeNodeConverter#buildTree}.
+     *
+     * @param nodes The tree nodes.
+     */
+    public TreeCache(List<TreeNode<ID>> nodes) {
+        reload(nodes);
+    }
+
+    /**
+     * Creates a cache of the tree built from the source objects, with additional properties.
+     *
+     * @param models The source objects.
+     * @param meta   A set of additional properties to include.
+     * @param <T>    the source type
+     * @param <ID>   the pk type
+     * @return The cache.
+     */
+    public static <T, ID> TreeCache<ID> of(List<T> models, Set<String> meta) {
+        return new TreeCache<>(AbstractTreeNodeConverter.createNodes(models, meta));
+    }
+
+    /**
+     * The current snapshot.
+     *
+     * @return The roots of the tree, unmodifiable.
+     */
+    public List<TreeNode<ID>> tree() {
+        return roots;
+    }
+
+    /**
+     * Replaces the whole tree.
+     *
+     * @param nodes The tree nodes.
+     */
+    public synchronized void reload(List<TreeNode<ID>> nodes) {
+        List<TreeNode<ID>> built = AbstractTreeNodeConverter.buildTree(nodes);
+        superiors.clear();
+        // 广度优先，冻结子节点列表并建立索引
+        Deque<TreeNode<ID>> queue = new ArrayDeque<>(built);
+        for (TreeNode<ID> root : built) {
+            superiors.put(root.getId(), null);
+        }
+        while (!queue.isEmpty()) {
+            TreeNode<ID> node = queue.poll();
+            List<TreeNode<ID>> children = List.copyOf(node.getChildren());
+            node.setChildren(children);
+            for (TreeNode<ID> child : children) {
+                superiors.put(child.getId(), node.getId());
+                queue.add(child);
+            }
+        }
+        roots = built;
+    }
+
+    /**
+     * Adds a node under its superior, after the existing children. A node whose superior is not in
+     * the tree is added as a root, like {@link AbstractTreeNodeConverter#buildTree} does with orphans.
+     * <p>
+     * Roots whose superior id is the id of the node, orphans until now, are moved under it in their order,
+     * so the tree is the one a rebuild would give. An orphan the node itself is inserted under stays a root.
+     *
+     * @param node The node, its children are ignored.
+     * @throws IllegalArgumentException If a node with the id is already in the tree.
+     */
+    public synchronized void insert(TreeNode<ID> node) {
+        ID id = node.getId();
+        if (superiors.containsKey(id)) {
+            throw new IllegalArgumentException("Node already exists: " + id);
+        }
+        ID superiorId = superiors.containsKey(node.getSuperiorId()) ? node.getSuperiorId() : null;
+        // 新节点所在的根不能再挂到它下面，否则成环
+        ID top = superiorId == null ? null : path(superiorId).get(0);
+        List<TreeNode<ID>> orphans = new ArrayList<>();
+        List<TreeNode<ID>> snapshot = new ArrayList<>(roots.size());
+        for (TreeNode<ID> root : roots) {
+            if (id.equals(root.getSuperiorId()) && !root.getId().equals(top)) {
+                orphans.add(root);
+            } else {
+                snapshot.add(root);
+            }
+        }
+        TreeNode<ID> inserted = copy(node, node.getSuperiorId(), List.copyOf(orphans));
+        roots = edit(orphans.isEmpty() ? roots : Collections.unmodifiableList(snapshot), superiorId,
+                children -> append(children, inserted));
+        superiors.put(id, superiorId);
+        for (TreeNode<ID> orphan : orphans) {
+            superiors.put(orphan.getId(), id);
+        }
+    }
+
+    /**
+     * Moves a node with its subtree under another superior, after the existing children.
+     *
+     * @param id         The id of the node.
+     * @param superiorId The id of the new superior, or null to make the node a root.
+     * @throws IllegalArgumentException If either node is not in the tree, or the new superior is the node
+     *                                  itself or one of its descendants.
+     */
+    public synchronized void move(ID id, ID superiorId) {
+        requireNode(id);
+        if (superiorId != null) {
+            requireNode(superiorId);
+            for (ID ancestor = superiorId; ancestor != null; ancestor = superiors.get(ancestor)) {
+                if (ancestor.equals(id)) {
+                    throw new IllegalArgumentException("Can not move node " + id + " under its own subtree");
+                }
+            }
+        }
+        ID oldSuperiorId = superiors.get(id);
+        TreeNode<ID> node = find(path(id));
+        TreeNode<ID> moved = copy(node, superiorId, node.getChildren());
+        // 两次路径复制，只发布一次
+        List<TreeNode<ID>> removed = edit(roots, oldSuperiorId, children -> remove(children, id));
+        roots = edit(removed, superiorId, children -> append(children, moved));
+        superiors.put(id, superiorId);
+    }
+
+    /**
+     * Deletes a node with its subtree.
+     *
+     * @param id The id of the node.
+     * @throws IllegalArgumentException If the node is not in the tree.
+     */
+    public synchronized void delete(ID id) {
+        requireNode(id);
+        TreeNode<ID> node = find(path(id));
+        roots = edit(roots, superiors.get(id), children -> remove(children, id));
+        Deque<TreeNode<ID>> queue = new ArrayDeque<>();
+        queue.add(node);
+        while (!queue.isEmpty()) {
+            TreeNode<ID> removed = queue.poll();
+            superiors.remove(removed.getId());
+            queue.addAll(removed.getChildren());
+        }
+    }
+
+    /**
+     * Applies a change to the children of a node, copying the node and its ancestors.
+     *
+     * @param snapshot   The roots of the snapshot to change.
+     * @param superiorId The id of the node whose children change, or null for the roots.
+     * @param change     Returns the new children, unmodifiable.
+     * @return The roots of the new snapshot.
+     */
+    private List<TreeNode<ID>> edit(List<TreeNode<ID>> snapshot, ID superiorId,
+                                    UnaryOperator<List<TreeNode<ID>>> change) {
+        if (superiorId == null) {
+            return change.apply(snapshot);
+        }
+        List<ID> path = path(superiorId);
+        List<TreeNode<ID>> nodes = new ArrayList<>(path.size());
+        List<TreeNode<ID>> level = snapshot;
+        for (ID id : path) {
+            TreeNode<ID> node = level.get(indexOf(level, id));
+            nodes.add(node);
+            level = node.getChildren();
+        }
+        // 自下而上复制路径上的节点
+        TreeNode<ID> node = nodes.get(nodes.size() - 1);
+        TreeNode<ID> copied = copy(node, node.getSuperiorId(), change.apply(node.getChildren()));
+        for (int i = nodes.size() - 2; i >= 0; i--) {
+            TreeNode<ID> ancestor = nodes.get(i);
+            copied = copy(ancestor, ancestor.getSuperiorId(), replace(ancestor.getChildren(), copied));
+        }
+        return replace(snapshot, copied);
+    }
+
+    /**
+     * The ids from the root down to a node.
+     *
+     * @param id The id of the node.
+     * @return The path, the node last.
+     */
+    private List<ID> path(ID id) {
+        List<ID> path = new ArrayList<>();
+        for (ID current = id; current != null; current = superiors.get(current)) {
+            path.add(current);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    private TreeNode<ID> find(List<ID> path) {
+        TreeNode<ID> node = null;
+        List<TreeNode<ID>> level = roots;
+        for (ID id : path) {
+            node = level.get(indexOf(level, id));
+            level = node.getChildren();
+        }
+        return node;
+    }
+
+    private void requireNode(ID id) {
+        if (!superiors.containsKey(id)) {
+            throw new IllegalArgumentException("Node not found: " + id);
+        }
+    }
+
+    private static <ID> int indexOf(List<TreeNode<ID>> nodes, ID id) {
+        for (int i = 0; i < nodes.size(); i++) {
+            if (Objects.equals(nodes.get(i).getId(), id)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Node not found in snapshot: " + id);
+    }
+
+    private static <ID> TreeNode<ID> copy(TreeNode<ID> node, ID superiorId, List<TreeNode<ID>> children) {
+        return TreeNode.withId(node.getId())
+                .name(node.getName())
+                .superiorId(superiorId)
+                .meta(node.getMeta())
+                .children(children)
+                .build();
+    }
+
+    private static <ID> List<TreeNode<ID>> append(List<TreeNode<ID>> nodes, TreeNode<ID> node) {
+        List<TreeNode<ID>> list = new ArrayList<>(nodes.size() + 1);
+        list.addAll(nodes);
+        list.add(node);
+        return Collections.unmodifiableList(list);
+    }
+
+    private static <ID> List<TreeNode<ID>> remove(List<TreeNode<ID>> nodes, ID id) {
+        List<TreeNode<ID>> list = new ArrayList<>(nodes);
+        list.remove(indexOf(nodes, id));
+        return Collections.unmodifiableList(list);
+    }
+
+    private static <ID> List<TreeNode<ID>> replace(List<TreeNode<ID>> nodes, TreeNode<ID> node) {
+        List<TreeNode<ID>> list = new ArrayList<>(nodes);
+        list.set(indexOf(nodes, node.getId()), node);
+        return Collections.unmodifiableList(list);
+    }
+}
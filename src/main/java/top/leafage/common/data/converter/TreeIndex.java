@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.data.converter;
+
+import top.leafage.common.data.domain.TreeNode;
+
+import java.util.*;
+
+/**
+ * An index over a built tree for lookups without walking it.
+ * <p>
+ * Nodes are numbered in pre-order, so the descendants of a node are exactly the positions between it and
+ * the end of its subtree. Together with an id to position map and the position of every parent this gives
+ * O(1) node lookup, O(1) descendant checks, O(depth) ancestor paths and descendant lists as views, without
+ * recursion. The index is a snapshot: changing the children of a node afterwards is not reflected.
+ *
+ * @param <ID> the pk type
+ * @author wq li
+ * @since 0.4.0
+ */
+public final class TreeIndex<ID> {
+
+    private final List<TreeNode<ID>> roots;
+    private final List<TreeNode<ID>> nodes;
+    private final Map<ID, Integer> positions;
+    private final int[] parents;
+    private final int[] ends;
+    private final int[] depths;
+
+    private TreeIndex(List<TreeNode<ID>> roots, List<TreeNode<ID>> nodes, Map<ID, Integer> positions, int[] parents,
+                      int[] ends, int[] depths) {
+        this.roots = roots;
+        this.nodes = nodes;
+        this.positions = positions;
+        this.parents = parents;
+        this.ends = ends;
+        this.depths = depths;
+    }
+
+    /**
+     * Indexes a built tree.
+     *
+     * @param roots The roots of the tree, as returned by {@link AbstractTreeNodeConverter#buildTree}.
+     * @param <ID>  the pk type
+     * @return The index.
+     * @throws IllegalArgumentException If an id occurs twice in the tree.
+     */
+    public static <ID> TreeIndex<ID> of(List<TreeNode<ID>> roots) {
+        List<TreeNode<ID>> nodes = new ArrayList<>();
+        Map<ID, Integer> positions = new HashMap<>();
+        int[] parents = new int[16];
+        int[] depths = new int[16];
+
+        // 先序遍历，栈中保存节点及其父节点位置
+        Deque<TreeNode<ID>> stack = new ArrayDeque<>();
+        Deque<Integer> parentStack = new ArrayDeque<>();
+        for (int i = roots.size() - 1; i >= 0; i--) {
+            stack.push(roots.get(i));
+            parentStack.push(-1);
+        }
+        while (!stack.isEmpty()) {
+            TreeNode<ID> node = stack.pop();
+            int parent = parentStack.pop();
+            int position = nodes.size();
+            if (positions.putIfAbsent(node.getId(), position) != null) {
+                throw new IllegalArgumentException("Duplicate node id: " + node.getId());
+            }
+            if (position == parents.length) {
+                parents = Arrays.copyOf(parents, position * 2);
+                depths = Arrays.copyOf(depths, position * 2);
+            }
+            nodes.add(node);
+            parents[position] = parent;
+            depths[position] = parent < 0 ? 0 : depths[parent] + 1;
+            List<TreeNode<ID>> children = node.getChildren();
+            for (int i = children.size() - 1; i >= 0; i--) {
+                stack.push(children.get(i));
+                parentStack.push(position);
+            }
+        }
+
+        // 自底向上累加子树大小，得到子树区间的终点
+        int size = nodes.size();
+        int[] ends = new int[size];
+        Arrays.fill(ends, 1);
+        for (int i = size - 1; i >= 0; i--) {
+            if (parents[i] >= 0) {
+                ends[parents[i]] += ends[i];
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            ends[i] += i;
+        }
+        return new TreeIndex<>(List.copyOf(roots), Collections.unmodifiableList(nodes), positions,
+                Arrays.copyOf(parents, size), ends, Arrays.copyOf(depths, size));
+    }
+
+    /**
+     * The roots of the tree.
+     *
+     * @return The roots, unmodifiable.
+     */
+    public List<TreeNode<ID>> getRoots() {
+        return roots;
+    }
+
+    /**
+     * The number of nodes in the tree.
+     *
+     * @return size.
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Whether a node is in the tree.
+     *
+     * @param id The id of the node.
+     * @return true if the node is in the tree.
+     */
+    public boolean contains(ID id) {
+        return positions.containsKey(id);
+    }
+
+    /**
+     * Looks up a node.
+     *
+     * @param id The id of the node.
+     * @return The node, or null if it is not in the tree.
+     */
+    public TreeNode<ID> get(ID id) {
+        Integer position = positions.get(id);
+        return position == null ? null : nodes.get(position);
+    }
+
+    /**
+     * The parent of a node.
+     *
+     * @param id The id of the node.
+     * @return The parent, or null if the node is a root or not in the tree.
+     */
+    public TreeNode<ID> getParent(ID id) {
+        Integer position = positions.get(id);
+        return position == null || parents[position] < 0 ? null : nodes.get(parents[position]);
+    }
+
+    /**
+     * The depth of a node, roots being at depth 0.
+     *
+     * @param id The id of the node.
+     * @return The depth, or -1 if the node is not in the tree.
+     */
+    public int depth(ID id) {
+        Integer position = positions.get(id);
+        return position == null ? -1 : depths[position];
+    }
+
+    /**
+     * The path from the root down to a node, e.g. for breadcrumbs.
+     *
+     * @param id The id of the node.
+     * @return The nodes from the root to the node itself, empty if the node is not in the tree.
+     */
+    public List<TreeNode<ID>> path(ID id) {
+        Integer position = positions.get(id);
+        if (position == null) {
+            return Collections.emptyList();
+        }
+        TreeNode<?>[] path = new TreeNode<?>[depths[position] + 1];
+        for (int p = position, i = path.length - 1; p >= 0; p = parents[p], i--) {
+            path[i] = nodes.get(p);
+        }
+        @SuppressWarnings("unchecked")
+        List<TreeNode<ID>> list = (List<TreeNode<ID>>) (List<?>) Arrays.asList(path);
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * The ancestors of a node.
+     *
+     * @param id The id of the node.
+     * @return The nodes from the root to the parent, empty if the node is a root or not in the tree.
+     */
+    public List<TreeNode<ID>> ancestors(ID id) {
+        List<TreeNode<ID>> path = path(id);
+        return path.isEmpty() ? path : path.subList(0, path.size() - 1);
+    }
+
+    /**
+     * The descendants of a node in pre-order, a view of the index.
+     *
+     * @param id The id of the node.
+     * @return The nodes of the subtree without the node itself, empty if the node is not in the tree.
+     */
+    public List<TreeNode<ID>> descendants(ID id) {
+        Integer position = positions.get(id);
+        return position == null ? Collections.emptyList() : nodes.subList(position + 1, ends[position]);
+    }
+
+    /**
+     * Whether a node lies in the subtree of another, e.g. whether a permission granted on a menu covers
+     * a sub-menu.
+     *
+     * @param id         The id of the node.
+     * @param ancestorId The id of the possible ancestor.
+     * @return true if the node is a descendant of the ancestor, false if either is not in the tree or
+     * they are the same node.
+     */
+    public boolean isDescendant(ID id, ID ancestorId) {
+        Integer position = positions.get(id);
+        Integer ancestor = positions.get(ancestorId);
+        return position != null && ancestor != null && ancestor < position && position < ends[ancestor];
+    }
+}
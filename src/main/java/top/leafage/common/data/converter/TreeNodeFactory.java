@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.data.converter;
+
+import top.leafage.common.beans.PropertyAccessors;
+import top.leafage.common.data.domain.TreeNode;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Creates tree nodes from objects of one class with one set of expand properties.
+ * <p>
+ * A factory is compiled once per class and expand set: the getters of {@code id}, {@code name},
+ * {@code superiorId} and of every expand property are resolved up front, expand properties without a
+ * getter are dropped, and the meta keys are shared by all nodes as a {@link MetaMap}. Creating a node is
+ * then only direct getter calls and two small arrays.
+ *
+ * @author wq li
+ * @since 0.4.0
+ */
+final class TreeNodeFactory {
+
+    /**
+     * 每个类缓存的 expand 组合上限，避免异常输入撑爆缓存
+     */
+    private static final int MAX_CACHED_EXPANDS = 64;
+
+    private static final Object[] NO_VALUES = new Object[0];
+
+    private static final ClassValue<ConcurrentMap<Set<String>, TreeNodeFactory>> FACTORIES = new ClassValue<>() {
+        @Override
+        protected ConcurrentMap<Set<String>, TreeNodeFactory> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final Class<?> type;
+    private final Function<Object, Object> id;
+    private final Function<Object, Object> name;
+    private final Function<Object, Object> superiorId;
+    private final String[] keys;
+    private final Function<Object, Object>[] getters;
+
+    @SuppressWarnings("unchecked")
+    private TreeNodeFactory(Class<?> clazz, Set<String> expand) {
+        this.type = clazz;
+        this.id = PropertyAccessors.getter(clazz, "id");
+        this.name = PropertyAccessors.getter(clazz, "name");
+        this.superiorId = PropertyAccessors.getter(clazz, "superiorId");
+        List<String> keys = new ArrayList<>();
+        List<Function<Object, Object>> getters = new ArrayList<>();
+        for (String field : expand) {
+            Function<Object, Object> getter = PropertyAccessors.getter(clazz, field);
+            if (getter != null) {
+                keys.add(field);
+                getters.add(getter);
+            }
+        }
+        this.keys = keys.toArray(new String[0]);
+        this.getters = (Function<Object, Object>[]) getters.toArray(new Function<?, ?>[0]);
+    }
+
+    /**
+     * Returns the factory of the class for the expand properties, compiling it on first use.
+     *
+     * @param clazz  The class of the source objects.
+     * @param expand The expand properties, or null.
+     * @return The factory.
+     */
+    static TreeNodeFactory of(Class<?> clazz, Set<String> expand) {
+        ConcurrentMap<Set<String>, TreeNodeFactory> factories = FACTORIES.get(clazz);
+        Set<String> key = expand == null ? Collections.emptySet() : expand;
+        TreeNodeFactory factory = factories.get(key);
+        if (factory == null) {
+            factory = new TreeNodeFactory(clazz, key);
+            if (factories.size() < MAX_CACHED_EXPANDS) {
+                factories.putIfAbsent(Set.copyOf(key), factory);
+            }
+        }
+        return factory;
+    }
+
+    /**
+     * Whether this factory creates nodes of the class.
+     *
+     * @param clazz The class of a source object.
+     * @return true if the factory can be reused for the object.
+     */
+    boolean creates(Class<?> clazz) {
+        return type == clazz;
+    }
+
+    /**
+     * Creates the node of an object.
+     *
+     * @param t    The source object, of the class of the factory.
+     * @param <ID> the pk type
+     * @return An instance of the tree node.
+     * @throws IllegalArgumentException if the id is null.
+     */
+    @SuppressWarnings("unchecked")
+    <ID> TreeNode<ID> create(Object t) {
+        ID nodeId = id == null ? null : (ID) id.apply(t);
+        if (nodeId == null) throw new IllegalArgumentException("ID must not be null");
+
+        return TreeNode.withId(nodeId)
+                .name(name == null ? null : (String) name.apply(t))
+                .superiorId(superiorId == null ? null : (ID) superiorId.apply(t))
+                .meta(meta(t))
+                .build();
+    }
+
+    private Map<String, Object> meta(Object t) {
+        if (keys.length == 0) {
+            return new MetaMap(keys, NO_VALUES, 0);
+        }
+        Object[] values = new Object[keys.length];
+        int size = 0;
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = getters[i].apply(t);
+            if (values[i] != null) {
+                size++;
+            }
+        }
+        return new MetaMap(keys, values, size);
+    }
+}
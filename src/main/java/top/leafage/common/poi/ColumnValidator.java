@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi;
+
+import java.util.regex.Pattern;
+
+/**
+ * The rules of an {@link ExcelColumn}, compiled once per class: the pattern is compiled up front and rules
+ * left at their defaults are not checked at all, so validating a value is a few field reads and compares.
+ *
+ * @author wq li
+ * @since 0.4.0
+ */
+final class ColumnValidator {
+
+    private final boolean required;
+    private final int maxLength;
+    private final Pattern pattern;
+    private final double min;
+    private final double max;
+    private final boolean ranged;
+
+    private ColumnValidator(ExcelColumn column) {
+        this.required = column.required();
+        this.maxLength = column.maxLength();
+        this.pattern = column.pattern().isEmpty() ? null : Pattern.compile(column.pattern());
+        this.min = column.min();
+        this.max = column.max();
+        this.ranged = min != Double.NEGATIVE_INFINITY || max != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Compiles the rules of a column.
+     *
+     * @param column The annotation.
+     * @return The validator, or null if the column declares no rule.
+     * @throws java.util.regex.PatternSyntaxException If the pattern is invalid.
+     */
+    static ColumnValidator of(ExcelColumn column) {
+        if (!column.required() && column.maxLength() == Integer.MAX_VALUE && column.pattern().isEmpty()
+                && column.min() == Double.NEGATIVE_INFINITY && column.max() == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        return new ColumnValidator(column);
+    }
+
+    /**
+     * Checks a converted value: required applies to any value, max length and pattern to text,
+     * the range to numbers.
+     *
+     * @param value The value converted to the property type, or null if the cell is blank.
+     * @return The reason the value is invalid, or null if it is valid.
+     */
+    String validate(Object value) {
+        if (value == null) {
+            return required ? "must not be blank" : null;
+        }
+        if (value instanceof CharSequence text) {
+            if (required && text.toString().isBlank()) {
+                return "must not be blank";
+            }
+            if (text.length() > maxLength) {
+                return "length must be at most " + maxLength;
+            }
+            if (pattern != null && !pattern.matcher(text).matches()) {
+                return "must match " + pattern.pattern();
+            }
+        } else if (ranged && value instanceof Number number) {
+            double d = number.doubleValue();
+            if (d < min || d > max) {
+                return rangeMessage();
+            }
+        }
+        return null;
+    }
+
+    private String rangeMessage() {
+        if (min == Double.NEGATIVE_INFINITY) {
+            return "must be at most " + format(max);
+        }
+        if (max == Double.POSITIVE_INFINITY) {
+            return "must be at least " + format(min);
+        }
+        return "must be between " + format(min) + " and " + format(max);
+    }
+
+    private static String format(double d) {
+        return d == Math.rint(d) && Math.abs(d) < 1e15 ? Long.toString((long) d) : Double.toString(d);
+    }
+}
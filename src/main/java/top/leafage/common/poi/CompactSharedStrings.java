@@ -0,0 +1,506 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * The shared strings table of a xlsx file, materialized once into a compact, read-only form.
+ * <p>
+ * All strings are stored back to back in a single byte arena, one byte per char for Latin-1 text and
+ * UTF-8 otherwise, instead of one object per entry. Entries with the same content are stored once.
+ * Tables larger than the memory limit are spilled to a temporary file and memory-mapped, so they do not
+ * count against the heap at all. Strings are created on lookup and kept in a small cache keyed by their
+ * content, so repeated values like status codes or region names share one instance.
+ * Lookups are thread-safe.
+ *
+ * @author wq li
+ * @since 0.4.0
+ */
+final class CompactSharedStrings implements IntFunction<String> {
+
+    /**
+     * 缓存槽位数，必须是 2 的幂
+     */
+    private static final int CACHE_SIZE = 4096;
+
+    private final ByteBuffer arena;
+    private final int[] offsets;
+    /**
+     * 每项的字节数左移一位，最低位为 1 表示 UTF-8，否则为 Latin-1
+     */
+    private final int[] lengths;
+    private final int count;
+    private final Entry[] cache = new Entry[CACHE_SIZE];
+
+    private CompactSharedStrings(ByteBuffer arena, int[] offsets, int[] lengths, int count) {
+        this.arena = arena;
+        this.offsets = offsets;
+        this.lengths = lengths;
+        this.count = count;
+    }
+
+    /**
+     * Loads the shared strings table of a package.
+     *
+     * @param pkg         The package.
+     * @param memoryLimit The number of bytes kept on the heap, larger tables are memory-mapped.
+     * @return The table, empty if the package has none.
+     * @throws IOException If the table can not be read or spilled.
+     */
+    static CompactSharedStrings load(OPCPackage pkg, int memoryLimit) throws IOException {
+        List<PackagePart> parts = pkg.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType());
+        if (parts.isEmpty()) {
+            return new Builder(memoryLimit).build();
+        }
+        try (InputStream inputStream = parts.get(0).getInputStream()) {
+            return load(inputStream, memoryLimit);
+        }
+    }
+
+    /**
+     * Loads a shared strings part.
+     *
+     * @param inputStream The content of the sst part.
+     * @param memoryLimit The number of bytes kept on the heap, larger tables are memory-mapped.
+     * @return The table.
+     * @throws IOException If the table can not be read or spilled.
+     */
+    static CompactSharedStrings load(InputStream inputStream, int memoryLimit) throws IOException {
+        Builder builder = new Builder(memoryLimit);
+        try {
+            XMLReader xmlReader = XMLHelper.newXMLReader();
+            xmlReader.setContentHandler(builder);
+            xmlReader.parse(new InputSource(inputStream));
+        } catch (SAXException | ParserConfigurationException e) {
+            builder.discard();
+            throw new IOException("Failed to parse shared strings.", e);
+        } catch (IOException | RuntimeException e) {
+            builder.discard();
+            throw e;
+        }
+        return builder.build();
+    }
+
+    /**
+     * The number of strings in the table.
+     *
+     * @return count.
+     */
+    int size() {
+        return count;
+    }
+
+    /**
+     * The number of bytes the strings take up, on the heap or mapped.
+     *
+     * @return size in bytes.
+     */
+    int arenaSize() {
+        return arena.capacity();
+    }
+
+    /**
+     * Returns the string at an index, the same instance for the same content as long as it stays in the cache.
+     *
+     * @param index The index of the string.
+     * @return The string.
+     */
+    @Override
+    public String apply(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Shared string index out of range: " + index);
+        }
+        int length = lengths[index] >>> 1;
+        if (length == 0) {
+            return "";
+        }
+        // 相同内容只存一份，偏移量即内容的标识
+        int offset = offsets[index];
+        int bucket = (offset * 0x9E3779B9 >>> 20) & (CACHE_SIZE - 1);
+        Entry entry = cache[bucket];
+        if (entry != null && entry.offset == offset) {
+            return entry.value;
+        }
+        Charset charset = (lengths[index] & 1) == 0 ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8;
+        String value;
+        if (arena.hasArray()) {
+            value = new String(arena.array(), arena.arrayOffset() + offset, length, charset);
+        } else {
+            byte[] bytes = new byte[length];
+            arena.get(offset, bytes);
+            value = new String(bytes, charset);
+        }
+        // Entry 不可变，并发读写槽位最多导致重复创建，不会读到错误的值
+        cache[bucket] = new Entry(offset, value);
+        return value;
+    }
+
+    /**
+     * Whether the string at an index is empty or only whitespace, without creating it if it can be told
+     * from the stored bytes.
+     *
+     * @param index The index of the string.
+     * @return true if the string is blank.
+     */
+    boolean isBlank(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Shared string index out of range: " + index);
+        }
+        int offset = offsets[index];
+        int length = lengths[index] >>> 1;
+        boolean utf8 = (lengths[index] & 1) == 1;
+        for (int i = 0; i < length; i++) {
+            int b = arena.get(offset + i) & 0xFF;
+            if (utf8 && b >= 0x80) {
+                // 多字节字符里也有空白，如全角空格
+                return apply(index).isBlank();
+            }
+            if (!Character.isWhitespace(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record Entry(int offset, String value) {
+    }
+
+    /**
+     * Parses the sst part into the arena, rich text runs concatenated, phonetic runs skipped,
+     * {@code _xHHHH_} escapes decoded.
+     */
+    private static final class Builder extends DefaultHandler {
+
+        private static final int CHUNK_SIZE = 16384;
+        private static final int MAX_PRESIZE = 1 << 16;
+
+        private final int memoryLimit;
+        private byte[] bytes = new byte[CHUNK_SIZE];
+        private int length;
+        private long spilled;
+        private Path file;
+        private FileChannel channel;
+        private ByteBuffer chunk;
+
+        private int[] offsets = new int[1024];
+        private int[] lengths = new int[1024];
+        private int count;
+
+        /**
+         * 去重用的开放寻址表，高 32 位是内容的 hash，低 32 位是项的下标加 1
+         */
+        private long[] table = new long[1024];
+        private int distinct;
+
+        private final StringBuilder text = new StringBuilder();
+        private byte[] latin1 = new byte[256];
+        private boolean inText;
+        private boolean inPhonetic;
+
+        private Builder(int memoryLimit) {
+            this.memoryLimit = memoryLimit;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "sst" -> presize(attributes.getValue("uniqueCount"));
+                case "si" -> text.setLength(0);
+                case "rPh" -> inPhonetic = true;
+                case "t" -> inText = !inPhonetic;
+                default -> {
+                    // ignore
+                }
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            switch (localName) {
+                case "si" -> {
+                    try {
+                        append(text.indexOf("_x") < 0 ? text : decode(text));
+                    } catch (IOException e) {
+                        throw new SAXException("Failed to spill shared strings.", e);
+                    }
+                }
+                case "rPh" -> inPhonetic = false;
+                case "t" -> inText = false;
+                default -> {
+                    // ignore
+                }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int len) {
+            if (inText) {
+                text.append(ch, start, len);
+            }
+        }
+
+        /**
+         * Presizes the index from the uniqueCount attribute. It comes from the uploaded file, so it is only
+         * a hint: values that do not parse or are negative are ignored, larger ones are capped at
+         * {@link #MAX_PRESIZE} and the index grows while appending.
+         */
+        private void presize(String uniqueCount) {
+            if (uniqueCount == null) {
+                return;
+            }
+            int hint;
+            try {
+                hint = Integer.parseInt(uniqueCount.trim());
+            } catch (NumberFormatException e) {
+                return;
+            }
+            if (hint >= offsets.length) {
+                offsets = new int[Math.min(hint, MAX_PRESIZE) + 1];
+                lengths = new int[offsets.length];
+            }
+        }
+
+        private void append(CharSequence value) throws IOException {
+            if (count + 1 >= offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                lengths = Arrays.copyOf(lengths, offsets.length);
+            }
+            byte[] encoded = encode(value);
+            int size = encoded == latin1 ? value.length() : encoded.length;
+            int utf8 = encoded == latin1 ? 0 : 1;
+
+            int hash = hash(encoded, size) * 31 + utf8;
+            int existing = find(hash, encoded, size, utf8);
+            if (existing >= 0) {
+                offsets[count] = offsets[existing];
+                lengths[count] = lengths[existing];
+                count++;
+                return;
+            }
+
+            if ((long) length + size > Integer.MAX_VALUE) {
+                throw new IOException("Shared strings table too large.");
+            }
+            if (channel == null && length + size > memoryLimit) {
+                spill();
+            }
+            if (channel == null) {
+                if (length + size > bytes.length) {
+                    bytes = Arrays.copyOf(bytes, (int) Math.min(Integer.MAX_VALUE - 8,
+                            Math.max(bytes.length * 2L, (long) length + size)));
+                }
+                System.arraycopy(encoded, 0, bytes, length, size);
+            } else {
+                write(encoded, size);
+            }
+            offsets[count] = length;
+            lengths[count] = size << 1 | utf8;
+            insert(hash, count);
+            count++;
+            length += size;
+        }
+
+        /**
+         * Encodes a string as Latin-1 into the reused buffer if it fits, as UTF-8 otherwise.
+         */
+        private byte[] encode(CharSequence value) {
+            int size = value.length();
+            if (size > latin1.length) {
+                latin1 = new byte[Math.max(latin1.length * 2, size)];
+            }
+            for (int i = 0; i < size; i++) {
+                char c = value.charAt(i);
+                if (c > 0xFF) {
+                    return value.toString().getBytes(StandardCharsets.UTF_8);
+                }
+                latin1[i] = (byte) c;
+            }
+            return latin1;
+        }
+
+        private int find(int hash, byte[] value, int size, int utf8) throws IOException {
+            int mask = table.length - 1;
+            for (int slot = hash & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+                if ((int) (table[slot] >>> 32) == hash) {
+                    int index = (int) table[slot] - 1;
+                    if (lengths[index] == (size << 1 | utf8) && matches(offsets[index], value, size)) {
+                        return index;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        private void insert(int hash, int index) {
+            if (++distinct * 2 > table.length) {
+                long[] old = table;
+                table = new long[old.length * 2];
+                for (long item : old) {
+                    if (item != 0) {
+                        put(item);
+                    }
+                }
+            }
+            put((long) hash << 32 | (index + 1L));
+        }
+
+        private void put(long item) {
+            int mask = table.length - 1;
+            int slot = (int) (item >>> 32) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = item;
+        }
+
+        /**
+         * Compares stored bytes with a value, reading them back from the temporary file if they were spilled.
+         */
+        private boolean matches(int offset, byte[] value, int size) throws IOException {
+            if (channel == null) {
+                return Arrays.equals(bytes, offset, offset + size, value, 0, size);
+            }
+            if (offset >= spilled) {
+                int start = (int) (offset - spilled);
+                return Arrays.equals(chunk.array(), start, start + size, value, 0, size);
+            }
+            ByteBuffer stored = ByteBuffer.allocate(size);
+            while (stored.hasRemaining()) {
+                if (channel.read(stored, offset + stored.position()) < 0) {
+                    return false;
+                }
+            }
+            return Arrays.equals(stored.array(), 0, size, value, 0, size);
+        }
+
+        private void spill() throws IOException {
+            file = Files.createTempFile("shared-strings-", ".tmp");
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            chunk = ByteBuffer.allocate(CHUNK_SIZE);
+            write(bytes, length);
+            bytes = null;
+        }
+
+        /**
+         * Writes bytes after the spilled ones, an entry is either in the chunk or in the file as a whole.
+         */
+        private void write(byte[] value, int size) throws IOException {
+            if (chunk.remaining() < size) {
+                flush();
+            }
+            if (size > chunk.capacity()) {
+                ByteBuffer buffer = ByteBuffer.wrap(value, 0, size);
+                while (buffer.hasRemaining()) {
+                    spilled += channel.write(buffer, spilled);
+                }
+            } else {
+                chunk.put(value, 0, size);
+            }
+        }
+
+        private void flush() throws IOException {
+            chunk.flip();
+            while (chunk.hasRemaining()) {
+                spilled += channel.write(chunk, spilled);
+            }
+            chunk.clear();
+        }
+
+        private CompactSharedStrings build() throws IOException {
+            if (channel == null) {
+                return new CompactSharedStrings(ByteBuffer.wrap(bytes, 0, length).slice(), offsets, lengths, count);
+            }
+            try {
+                flush();
+                ByteBuffer arena = channel.map(FileChannel.MapMode.READ_ONLY, 0, spilled);
+                return new CompactSharedStrings(arena, offsets, lengths, count);
+            } finally {
+                discard();
+            }
+        }
+
+        /**
+         * Closes and deletes the temporary file, a mapping stays valid until it is garbage collected.
+         */
+        private void discard() {
+            if (channel == null) {
+                return;
+            }
+            try {
+                channel.close();
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // 仍被映射时部分平台无法删除，退出时再删
+                file.toFile().deleteOnExit();
+            }
+        }
+
+        private static String decode(CharSequence value) {
+            StringBuilder sb = new StringBuilder(value.length());
+            int i = 0;
+            while (i < value.length()) {
+                if (i + 7 <= value.length() && value.charAt(i) == '_' && value.charAt(i + 1) == 'x'
+                        && value.charAt(i + 6) == '_' && isHex(value, i + 2, i + 6)) {
+                    sb.append((char) Integer.parseInt(value.subSequence(i + 2, i + 6).toString(), 16));
+                    i += 7;
+                } else {
+                    sb.append(value.charAt(i++));
+                }
+            }
+            return sb.toString();
+        }
+
+        private static int hash(byte[] value, int size) {
+            int hash = 1;
+            for (int i = 0; i < size; i++) {
+                hash = 31 * hash + value[i];
+            }
+            return hash ^ (hash >>> 16);
+        }
+
+        private static boolean isHex(CharSequence value, int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (Character.digit(value.charAt(i), 16) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.stream.IntStream;
+
+/**
+ * A delimited text file memory-mapped in chunks that start and end on record boundaries, so the chunks can
+ * be parsed independently.
+ * <p>
+ * The file is first cut at equal offsets. A quoted field may span lines, so whether an offset lies inside
+ * quotes depends on everything before it: every raw chunk counts its quotes and line ends in parallel,
+ * its line ends both as if it started outside and inside quotes, and a prefix over the quote parities
+ * picks the right count. Each offset is then moved forward to just after the next line end outside
+ * quotes, and the row number of the first record of every chunk is known without parsing anything.
+ * A line ends with a line feed, or with a carriage return not followed by one, as {@link CsvParser} reads it.
+ * <p>
+ * This relies on quotes only opening and closing fields, as RFC 4180 requires, and on the quote, carriage
+ * return and line feed bytes never being part of another character: only files in a
+ * {@linkplain CsvFormat#isSplittable() splittable} format can be split.
+ *
+ * @author wq li
+ * @since 0.4.0
+ */
+final class CsvChunks {
+
+    private static final long MIN_CHUNK_SIZE = 1L << 20;
+    private static final long MAX_CHUNK_SIZE = 64L << 20;
+    private static final int SCAN_SIZE = 64 * 1024;
+
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] chunks;
+    private final int[] firstRowNums;
+
+    private CsvChunks(MappedByteBuffer header, MappedByteBuffer[] chunks, int[] firstRowNums) {
+        this.header = header;
+        this.chunks = chunks;
+        this.firstRowNums = firstRowNums;
+    }
+
+    /**
+     * Maps a file split into about four chunks per worker, between 1 and 64 MiB each.
+     *
+     * @param channel     The file, may be closed once split.
+     * @param format      The format of the file, which must be splittable.
+     * @param parallelism The number of workers parsing the chunks.
+     * @return The chunks.
+     * @throws IOException If the file can not be read or mapped.
+     */
+    static CsvChunks split(FileChannel channel, CsvFormat format, int parallelism) throws IOException {
+        long size = channel.size();
+        byte quote = (byte) format.getQuote();
+        long headerEnd = boundary(channel, 0, size, quote, false);
+        MappedByteBuffer header = map(channel, 0, headerEnd);
+
+        long body = size - headerEnd;
+        if (body <= MIN_CHUNK_SIZE) {
+            return new CsvChunks(header, new MappedByteBuffer[]{map(channel, headerEnd, size)}, new int[]{1});
+        }
+        long chunkSize = Math.min(Math.max(body / (4L * Math.max(1, parallelism)), MIN_CHUNK_SIZE), MAX_CHUNK_SIZE);
+        int n = Math.toIntExact((body + chunkSize - 1) / chunkSize);
+        long[] offsets = new long[n + 1];
+        for (int i = 0; i < n; i++) {
+            offsets[i] = headerEnd + i * chunkSize;
+        }
+        offsets[n] = size;
+
+        Counts[] counts = new Counts[n];
+        IntStream.range(0, n).parallel().forEach(i -> counts[i] = count(channel, offsets[i], offsets[i + 1], size, quote));
+
+        // 前缀：每块起点是否在引号内、之前有多少个记录
+        boolean[] quoted = new boolean[n];
+        long[] lineEnds = new long[n];
+        for (int i = 1; i < n; i++) {
+            Counts previous = counts[i - 1];
+            quoted[i] = quoted[i - 1] ^ previous.odd();
+            lineEnds[i] = lineEnds[i - 1] + (quoted[i - 1] ? previous.oddLineEnds() : previous.evenLineEnds());
+        }
+
+        long[] starts = new long[n + 1];
+        starts[0] = headerEnd;
+        starts[n] = size;
+        IntStream.range(1, n).parallel().forEach(i -> starts[i] = boundary(channel, offsets[i], size, quote, quoted[i]));
+
+        MappedByteBuffer[] chunks = new MappedByteBuffer[n];
+        int[] firstRowNums = new int[n];
+        for (int i = 0; i < n; i++) {
+            chunks[i] = map(channel, starts[i], starts[i + 1]);
+            // 表头 + 之前的换行 + 跨越切分点的那条记录
+            firstRowNums[i] = Math.toIntExact(i == 0 ? 1 : 2 + lineEnds[i]);
+        }
+        return new CsvChunks(header, chunks, firstRowNums);
+    }
+
+    /**
+     * The header record, with a byte order mark if the file has one.
+     *
+     * @return The bytes of the header.
+     */
+    ByteBuffer header() {
+        return header.duplicate();
+    }
+
+    int size() {
+        return chunks.length;
+    }
+
+    /**
+     * The records of a chunk.
+     *
+     * @param index The index of the chunk.
+     * @return The bytes of the chunk.
+     */
+    ByteBuffer chunk(int index) {
+        return chunks[index].duplicate();
+    }
+
+    /**
+     * The zero based row number of the first record of a chunk, the header being row 0.
+     *
+     * @param index The index of the chunk.
+     * @return The row number.
+     */
+    int firstRowNum(int index) {
+        return firstRowNums[index];
+    }
+
+    /**
+     * Finds the first record boundary at or after an offset.
+     *
+     * @param channel The file.
+     * @param from    The offset to start at.
+     * @param size    The size of the file.
+     * @param quote   The quote byte.
+     * @param quoted  Whether the offset lies inside quotes.
+     * @return The offset just after the next line end outside quotes, or the size of the file.
+     */
+    private static long boundary(FileChannel channel, long from, long size, byte quote, boolean quoted) {
+        for (long position = from; position < size; position += SCAN_SIZE) {
+            int length = (int) Math.min(SCAN_SIZE, size - position);
+            // 多映射一个字节，看回车后面是不是换行
+            ByteBuffer bytes = map(channel, position, Math.min(size, position + length + 1));
+            for (int i = 0; i < length; i++) {
+                byte b = bytes.get(i);
+                if (b == quote) {
+                    quoted = !quoted;
+                } else if (!quoted && isLineEnd(bytes, i)) {
+                    return position + i + 1;
+                }
+            }
+        }
+        return size;
+    }
+
+    private static Counts count(FileChannel channel, long from, long to, long size, byte quote) {
+        ByteBuffer bytes = map(channel, from, Math.min(size, to + 1));
+        int length = (int) (to - from);
+        int parity = 0;
+        long[] lineEnds = new long[2];
+        for (int i = 0; i < length; i++) {
+            byte b = bytes.get(i);
+            if (b == quote) {
+                parity ^= 1;
+            } else if (isLineEnd(bytes, i)) {
+                lineEnds[parity]++;
+            }
+        }
+        return new Counts(parity == 1, lineEnds[0], lineEnds[1]);
+    }
+
+    /**
+     * Whether a byte ends a line: a line feed, or a carriage return not followed by a line feed.
+     *
+     * @param bytes The bytes, including the one after the index if there is one.
+     * @param index The index of the byte.
+     * @return true if the line ends after the byte.
+     */
+    private static boolean isLineEnd(ByteBuffer bytes, int index) {
+        byte b = bytes.get(index);
+        return b == '\n' || b == '\r' && (index + 1 == bytes.limit() || bytes.get(index + 1) != '\n');
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long from, long to) {
+        if (to - from > Integer.MAX_VALUE) {
+            throw new UncheckedIOException(new IOException("Chunk too large to map: " + (to - from) + " bytes"));
+        }
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The quote parity of a raw chunk and its line ends at even and odd parity, the ones outside quotes
+     * being the even ones if the chunk starts outside quotes, the odd ones otherwise.
+     */
+    private record Counts(boolean odd, long evenLineEnds, long oddLineEnds) {
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * The format of a delimited text file read by {@link CsvReader}.
+ * <p>
+ * Fields may be quoted, a quote inside a quoted field is doubled, quoted fields may span lines
+ * (RFC 4180). Records end with {@code \n}, {@code \r\n} or {@code \r}.
+ *
+ * @author wq li
+ * @since 0.4.0
+ */
+public final class CsvFormat {
+
+    /**
+     * Comma separated, UTF-8.
+     */
+    public static final CsvFormat CSV = new CsvFormat(',', '"', StandardCharsets.UTF_8);
+
+    /**
+     * Tab separated, UTF-8.
+     */
+    public static final CsvFormat TSV = new CsvFormat('\t', '"', StandardCharsets.UTF_8);
+
+    private final char delimiter;
+    private final char quote;
+    private final Charset charset;
+
+    private CsvFormat(char delimiter, char quote, Charset charset) {
+        if (delimiter == quote || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("Invalid delimiter: " + delimiter);
+        }
+        if (quote == '\n' || quote == '\r') {
+            throw new IllegalArgumentException("Invalid quote: " + quote);
+        }
+        this.delimiter = delimiter;
+        this.quote = quote;
+        this.charset = Objects.requireNonNull(charset, "charset");
+    }
+
+    /**
+     * Creates a format with double quotes.
+     *
+     * @param delimiter The field delimiter.
+     * @param charset   The charset of the file.
+     * @return The format.
+     */
+    public static CsvFormat of(char delimiter, Charset charset) {
+        return new CsvFormat(delimiter, '"', charset);
+    }
+
+    /**
+     * Creates a format.
+     *
+     * @param delimiter The field delimiter.
+     * @param quote     The quote character.
+     * @param charset   The charset of the file.
+     * @return The format.
+     */
+    public static CsvFormat of(char delimiter, char quote, Charset charset) {
+        return new CsvFormat(delimiter, quote, charset);
+    }
+
+    /**
+     * Returns this format with another charset, e.g. {@code CsvFormat.CSV.withCharset(Charset.forName("GBK"))}.
+     *
+     * @param charset The charset of the file.
+     * @return The format.
+     */
+    public CsvFormat withCharset(Charset charset) {
+        return new CsvFormat(delimiter, quote, charset);
+    }
+
+    /**
+     * <p>Getter for the field <code>delimiter</code>.</p>
+     *
+     * @return the field delimiter
+     */
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    /**
+     * <p>Getter for the field <code>quote</code>.</p>
+     *
+     * @return the quote character
+     */
+    public char getQuote() {
+        return quote;
+    }
+
+    /**
+     * <p>Getter for the field <code>charset</code>.</p>
+     *
+     * @return the charset of the file
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Whether a file in this format can be split at byte offsets: the quote and line feed bytes must never
+     * occur inside a multibyte character of the charset.
+     *
+     * @return true if record boundaries can be found by scanning bytes.
+     */
+    boolean isSplittable() {
+        return switch (charset.name()) {
+            case "UTF-8", "US-ASCII", "ISO-8859-1" -> quote < 0x80;
+            // 双字节编码的尾字节从 0x40 开始
+            case "GBK", "GB2312", "GB18030", "Big5" -> quote < 0x40;
+            default -> false;
+        };
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Parses delimited text into rows of cells for a {@link StreamingSheetHandler.RowListener}, the same listener
+ * the xlsx streaming parser feeds.
+ * <p>
+ * Bytes are read from the channel into a fixed buffer and decoded chunk by chunk, fields are scanned in
+ * place and copied in runs into one reused builder. Fields of columns the listener does not accept are
+ * scanned for quotes and delimiters only, never copied. Malformed input for the charset is reported,
+ * not replaced, so a file in the wrong encoding fails instead of importing garbage.
+ *
+ * @author wq li
+ * @since 0.4.0
+ */
+final class CsvParser {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // 字段内的解析状态
+    private static final int FIELD_START = 0;
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    private static final int QUOTE_IN_QUOTED = 3;
+
+    private final char delimiter;
+    private final char quote;
+    private final CharsetDecoder decoder;
+    private final StreamingSheetHandler.RowListener listener;
+
+    private final RawCell cell = new RawCell();
+    private final StringBuilder field = new StringBuilder();
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+
+    private int rowNum;
+    private int column;
+    private int state = FIELD_START;
+    private boolean inRow;
+    private boolean accepted;
+    private boolean inRun;
+    private boolean pendingLineFeed;
+    private boolean started;
+
+    /**
+     * Creates a parser for a whole file, a leading byte order mark is skipped.
+     *
+     * @param format   The format of the file.
+     * @param listener Receives the parsed rows, the first one being the header.
+     */
+    CsvParser(CsvFormat format, StreamingSheetHandler.RowListener listener) {
+        this(format, listener, 0);
+        this.started = false;
+    }
+
+    /**
+     * Creates a parser for a part of a file starting at a record boundary.
+     *
+     * @param format      The format of the file.
+     * @param listener    Receives the parsed rows.
+     * @param firstRowNum The zero based row number of the first record.
+     */
+    CsvParser(CsvFormat format, StreamingSheetHandler.RowListener listener, int firstRowNum) {
+        this.delimiter = format.getDelimiter();
+        this.quote = format.getQuote();
+        this.decoder = format.getCharset().newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        this.listener = listener;
+        this.rowNum = firstRowNum - 1;
+        this.started = true;
+    }
+
+    /**
+     * Parses the whole channel.
+     *
+     * @param channel The channel to read, not closed.
+     * @throws IOException If the channel can not be read or decoded.
+     */
+    void parse(ReadableByteChannel channel) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+        boolean eof = false;
+        while (!eof) {
+            eof = channel.read(bytes) < 0;
+            bytes.flip();
+            decode(bytes, eof);
+            bytes.compact();
+        }
+        finish();
+    }
+
+    /**
+     * Parses the remaining bytes of a buffer, a mapped part of a file for example.
+     *
+     * @param bytes The bytes to parse.
+     * @throws IOException If the bytes can not be decoded.
+     */
+    void parse(ByteBuffer bytes) throws IOException {
+        decode(bytes, true);
+        finish();
+    }
+
+    private void decode(ByteBuffer bytes, boolean endOfInput) throws IOException {
+        while (true) {
+            CoderResult result = decoder.decode(bytes, chars, endOfInput);
+            if (result.isError()) {
+                result.throwException();
+            }
+            consume(chars);
+            if (result.isUnderflow()) {
+                return;
+            }
+        }
+    }
+
+    private void finish() {
+        while (decoder.flush(chars).isOverflow()) {
+            consume(chars);
+        }
+        consume(chars);
+        if (inRow) {
+            endField();
+            endRecord();
+        }
+    }
+
+    /**
+     * Scans the decoded chars, leaves the buffer cleared.
+     *
+     * @param chars The decoded chars.
+     */
+    private void consume(CharBuffer chars) {
+        chars.flip();
+        char[] buf = chars.array();
+        int start = chars.arrayOffset() + chars.position();
+        int end = chars.arrayOffset() + chars.limit();
+        if (!started && start < end) {
+            started = true;
+            // 跳过 BOM
+            if (buf[start] == '\uFEFF') {
+                start++;
+            }
+        }
+        // 当前字段跨缓冲区时，从缓冲区开头继续
+        int run = inRun ? start : -1;
+        for (int i = start; i < end; i++) {
+            char c = buf[i];
+            if (pendingLineFeed) {
+                pendingLineFeed = false;
+                if (c == '\n') continue;
+            }
+            switch (state) {
+                case FIELD_START -> {
+                    if (!inRow) {
+                        startRow();
+                    }
+                    accepted = listener.accepts(column);
+                    if (c == quote) {
+                        state = QUOTED;
+                        run = i + 1;
+                    } else if (c == delimiter) {
+                        endField();
+                    } else if (c == '\n' || c == '\r') {
+                        endLine(c);
+                    } else {
+                        state = UNQUOTED;
+                        run = i;
+                    }
+                }
+                case UNQUOTED -> {
+                    if (c == delimiter) {
+                        append(buf, run, i);
+                        run = -1;
+                        endField();
+                    } else if (c == '\n' || c == '\r') {
+                        append(buf, run, i);
+                        run = -1;
+                        endLine(c);
+                    }
+                }
+                case QUOTED -> {
+                    if (c == quote) {
+                        append(buf, run, i);
+                        run = -1;
+                        state = QUOTE_IN_QUOTED;
+                    }
+                }
+                default -> {
+                    // 引号后：转义的引号、字段结束，或不规范的内容（宽松处理，按原样保留）
+                    if (c == delimiter) {
+                        endField();
+                    } else if (c == '\n' || c == '\r') {
+                        endLine(c);
+                    } else {
+                        state = c == quote ? QUOTED : UNQUOTED;
+                        run = i;
+                    }
+                }
+            }
+        }
+        inRun = run >= 0;
+        if (inRun) {
+            append(buf, run, end);
+        }
+        chars.clear();
+    }
+
+    private void append(char[] buf, int from, int to) {
+        if (accepted && to > from) {
+            field.append(buf, from, to - from);
+        }
+    }
+
+    private void startRow() {
+        rowNum++;
+        inRow = true;
+        listener.startRow(rowNum);
+    }
+
+    private void endField() {
+        if (accepted) {
+            cell.load(field);
+            listener.cell(column, cell);
+        }
+        field.setLength(0);
+        column++;
+        state = FIELD_START;
+    }
+
+    private void endLine(char c) {
+        endField();
+        endRecord();
+        pendingLineFeed = c == '\r';
+    }
+
+    private void endRecord() {
+        listener.endRow(rowNum);
+        inRow = false;
+        column = 0;
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.status.StatusLogger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Utility class for reading and mapping csv and tsv files to the specified type.
+ * <p>
+ * The first record is the header, columns are matched to properties exactly like {@link ExcelReader} does,
+ * by field name or {@link ExcelColumn} value, and rows are converted by the same mapper: blank rows are
+ * skipped, rows that can not be mapped go to the error handler of the {@link ReadOptions}, the conversion
+ * executor and the read listener apply as well. Options specific to workbooks, the sheet name, password,
+ * formula mode and shared strings, are ignored.
+ * <p>
+ * Files are read through a {@link FileChannel}, decoded in fixed chunks and parsed without building any
+ * intermediate structure per row. Large files can be {@linkplain #stream streamed}, memory-mapped and
+ * parsed in parallel.
+ *
+ * @author wq li
+ * @since 0.4.0
+ */
+public class CsvReader {
+
+    private static final Logger logger = StatusLogger.getLogger();
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    protected CsvReader() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Reads and maps a comma separated UTF-8 file.
+     *
+     * @param file  The csv file.
+     * @param clazz The class to map rows to.
+     * @param <T>   The type of objects to map the rows to.
+     * @return List of mapped objects.
+     */
+    public static <T> List<T> read(Path file, Class<T> clazz) {
+        return read(file, clazz, CsvFormat.CSV, ReadOptions.defaults());
+    }
+
+    /**
+     * Reads and maps a delimited text file.
+     *
+     * @param file    The file.
+     * @param clazz   The class to map rows to.
+     * @param format  The format of the file.
+     * @param options The read options.
+     * @param <T>     The type of objects to map the rows to.
+     * @return List of mapped objects.
+     */
+    public static <T> List<T> read(Path file, Class<T> clazz, CsvFormat format, ReadOptions options) {
+        List<T> dataList = new ArrayList<>();
+        try {
+            read(file, clazz, format, options, dataList::add);
+            return dataList;
+        } catch (IOException e) {
+            logger.error("Failed to read from file.", e);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Reads and maps a comma separated UTF-8 stream.
+     *
+     * @param inputStream The input stream of the csv file.
+     * @param clazz       The class to map rows to.
+     * @param <T>         The type of objects to map the rows to.
+     * @return List of mapped objects.
+     */
+    public static <T> List<T> read(InputStream inputStream, Class<T> clazz) {
+        return read(inputStream, clazz, CsvFormat.CSV, ReadOptions.defaults());
+    }
+
+    /**
+     * Reads and maps a delimited text stream.
+     *
+     * @param inputStream The input stream of the file.
+     * @param clazz       The class to map rows to.
+     * @param format      The format of the file.
+     * @param options     The read options.
+     * @param <T>         The type of objects to map the rows to.
+     * @return List of mapped objects.
+     */
+    public static <T> List<T> read(InputStream inputStream, Class<T> clazz, CsvFormat format, ReadOptions options) {
+        List<T> dataList = new ArrayList<>();
+        try {
+            read(inputStream, clazz, format, options, dataList::add);
+            return dataList;
+        } catch (IOException e) {
+            logger.error("Failed to read from input stream.", e);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Reads a delimited text file and hands the mapped rows to the sink in batches,
+     * so the whole file is never held in memory.
+     *
+     * @param file      The file.
+     * @param clazz     The class to map rows to.
+     * @param batchSink Receives the mapped objects in row order, at most {@code batchSize} per call.
+     *                  The list is handed off and not touched by the reader afterwards.
+     * @param batchSize The size of each batch.
+     * @param format    The format of the file.
+     * @param options   The read options.
+     * @param <T>       The type of objects to map the rows to.
+     * @throws java.io.UncheckedIOException If the file can not be read or decoded.
+     */
+    public static <T> void read(Path file, Class<T> clazz, Consumer<List<T>> batchSink, int batchSize,
+                                CsvFormat format, ReadOptions options) {
+        ExcelReader.BatchCollector<T> collector = batchCollector(batchSink, batchSize);
+        try {
+            read(file, clazz, format, options, collector);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read from file.", e);
+        }
+        collector.flush();
+    }
+
+    /**
+     * Reads a delimited text stream and hands the mapped rows to the sink in batches,
+     * so the whole file is never held in memory.
+     *
+     * @param inputStream The input stream of the file.
+     * @param clazz       The class to map rows to.
+     * @param batchSink   Receives the mapped objects in row order, at most {@code batchSize} per call.
+     *                    The list is handed off and not touched by the reader afterwards.
+     * @param batchSize   The size of each batch.
+     * @param format      The format of the file.
+     * @param options     The read options.
+     * @param <T>         The type of objects to map the rows to.
+     * @throws java.io.UncheckedIOException If the stream can not be read or decoded.
+     */
+    public static <T> void read(InputStream inputStream, Class<T> clazz, Consumer<List<T>> batchSink, int batchSize,
+                                CsvFormat format, ReadOptions options) {
+        ExcelReader.BatchCollector<T> collector = batchCollector(batchSink, batchSize);
+        try {
+            read(inputStream, clazz, format, options, collector);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read from input stream.", e);
+        }
+        collector.flush();
+    }
+
+    /**
+     * Streams the mapped rows of a large delimited text file, parsed in parallel.
+     * <p>
+     * The file is memory-mapped and split into chunks on record boundaries, see {@link CsvChunks}, which are
+     * parsed on the {@link ForkJoinPool} running the stream, the common pool unless the stream is consumed
+     * inside another pool. The stream is parallel and ordered: collecting it keeps the rows in file order,
+     * {@link Stream#unordered()} followed by {@code forEach} hands out the rows of each chunk as soon as it is
+     * parsed. Row errors go to the error handler of the options from several threads, not in row order, with
+     * their row numbers in the file. The conversion executor of the options is not used, the chunks already
+     * convert in parallel; the read listener is called when the stream is closed, or when a chunk fails.
+     * <p>
+     * Quotes may only open and close fields (RFC 4180). Files in a charset other than UTF-8, US-ASCII,
+     * ISO-8859-1, GBK, GB18030 or Big5, UTF-16 for example, can not be split at byte offsets: they are
+     * read whole by a single parser on the calling thread when the stream is created, the read listener
+     * being called then, and the rows are streamed from memory.
+     *
+     * @param file    The file.
+     * @param clazz   The class to map rows to.
+     * @param format  The format of the file.
+     * @param options The read options.
+     * @param <T>     The type of objects to map the rows to.
+     * @return Parallel stream of mapped objects, in file order unless made unordered.
+     * @throws java.io.UncheckedIOException If the file can not be read or decoded, also from the stream.
+     */
+    public static <T> Stream<T> stream(Path file, Class<T> clazz, CsvFormat format, ReadOptions options) {
+        if (!format.isSplittable()) {
+            List<T> dataList = new ArrayList<>();
+            try {
+                read(file, clazz, format, options, dataList::add);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read from file.", e);
+            }
+            return dataList.parallelStream();
+        }
+        ReadRecorder recorder = ReadRecorder.of(options);
+        CsvChunks chunks;
+        RowMapper<T> mapper;
+        // 映射在 channel 关闭后仍然有效
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            recorder.bytesRead(channel.size());
+            chunks = CsvChunks.split(channel, format, ForkJoinPool.getCommonPoolParallelism());
+            HeaderListener header = new HeaderListener();
+            long start = recorder.startParse();
+            new CsvParser(format, header).parse(chunks.header());
+            recorder.endParse(start);
+            mapper = header.headers == null ? null : RowMapper.of(clazz, header.headers);
+        } catch (IOException e) {
+            recorder.fail(e);
+            throw new UncheckedIOException("Failed to read from file.", e);
+        } catch (RuntimeException e) {
+            recorder.fail(e);
+            throw e;
+        }
+        if (mapper == null) {
+            return Stream.<T>empty().onClose(recorder::complete);
+        }
+        Consumer<RowError> errorHandler = options.getErrorHandler() == null
+                ? null : ExcelReader.synchronizedHandler(options.getErrorHandler());
+        return IntStream.range(0, chunks.size()).parallel()
+                .mapToObj(i -> parseChunk(chunks, i, format, mapper, errorHandler, recorder))
+                .flatMap(List::stream)
+                .onClose(recorder::complete);
+    }
+
+    private static <T> List<T> parseChunk(CsvChunks chunks, int index, CsvFormat format, RowMapper<T> mapper,
+                                          Consumer<RowError> errorHandler, ReadRecorder recorder) {
+        List<T> dataList = new ArrayList<>();
+        ReadRecorder fork = recorder.fork();
+        long start = fork.startParse();
+        try {
+            new CsvParser(format, ExcelReader.SheetRowListener.of(mapper, dataList::add, errorHandler, fork),
+                    chunks.firstRowNum(index)).parse(chunks.chunk(index));
+            fork.endParse(start);
+        } catch (IOException e) {
+            recorder.merge(fork);
+            recorder.fail(e);
+            throw new UncheckedIOException("Failed to read from file.", e);
+        } catch (RuntimeException e) {
+            recorder.merge(fork);
+            recorder.fail(e);
+            throw e;
+        }
+        recorder.merge(fork);
+        return dataList;
+    }
+
+    /**
+     * Parses a delimited text file and hands every mapped row to the consumer.
+     *
+     * @param file     The file.
+     * @param clazz    The class to map rows to.
+     * @param format   The format of the file.
+     * @param options  The read options.
+     * @param consumer Receives the mapped objects in row order.
+     * @param <T>      The type of objects to map the rows to.
+     * @throws IOException If the file can not be read or decoded.
+     */
+    protected static <T> void read(Path file, Class<T> clazz, CsvFormat format, ReadOptions options,
+                                   Consumer<T> consumer) throws IOException {
+        ReadRecorder recorder = ReadRecorder.of(options);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            recorder.bytesRead(channel.size());
+            parse(channel, clazz, format, options, consumer, recorder);
+        } catch (IOException | RuntimeException e) {
+            recorder.fail(e);
+            throw e;
+        }
+        recorder.complete();
+    }
+
+    /**
+     * Parses a delimited text stream and hands every mapped row to the consumer.
+     *
+     * @param inputStream The input stream of the file, not closed.
+     * @param clazz       The class to map rows to.
+     * @param format      The format of the file.
+     * @param options     The read options.
+     * @param consumer    Receives the mapped objects in row order.
+     * @param <T>         The type of objects to map the rows to.
+     * @throws IOException If the stream can not be read or decoded.
+     */
+    protected static <T> void read(InputStream inputStream, Class<T> clazz, CsvFormat format, ReadOptions options,
+                                   Consumer<T> consumer) throws IOException {
+        ReadRecorder recorder = ReadRecorder.of(options);
+        try {
+            // 不关闭 channel，否则会关闭调用方的流
+            parse(Channels.newChannel(recorder.count(inputStream)), clazz, format, options, consumer, recorder);
+        } catch (IOException | RuntimeException e) {
+            recorder.fail(e);
+            throw e;
+        }
+        recorder.complete();
+    }
+
+    private static <T> void parse(ReadableByteChannel channel, Class<T> clazz, CsvFormat format, ReadOptions options,
+                                  Consumer<T> consumer, ReadRecorder recorder) throws IOException {
+        ExcelReader.SheetRowListener<T> listener = ExcelReader.SheetRowListener.of(clazz, consumer, options, recorder);
+        long start = recorder.startParse();
+        new CsvParser(format, listener).parse(channel);
+        recorder.endParse(start);
+        listener.finish();
+    }
+
+    private static <T> ExcelReader.BatchCollector<T> batchCollector(Consumer<List<T>> batchSink, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be greater than 0");
+        }
+        return new ExcelReader.BatchCollector<>(batchSink, batchSize);
+    }
+
+    /**
+     * Collects the cells of the header record, the first one, and skips everything after it.
+     */
+    private static final class HeaderListener implements StreamingSheetHandler.RowListener {
+
+        private List<String> headers;
+        private boolean done;
+
+        @Override
+        public void startRow(int rowNum) {
+            if (!done) {
+                headers = new ArrayList<>();
+            }
+        }
+
+        @Override
+        public boolean accepts(int column) {
+            return !done;
+        }
+
+        @Override
+        public void cell(int column, RawCell cell) {
+            while (headers.size() < column) {
+                headers.add("");
+            }
+            Object value = cell.value();
+            headers.add(value == null ? "" : value.toString());
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            done = true;
+        }
+    }
+}
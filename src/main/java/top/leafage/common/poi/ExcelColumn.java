@@ -22,6 +22,11 @@ import java.lang.annotation.Target;
 
 /**
  * excel column
+ * <p>
+ * The rules are checked by the readers on the converted value of every mapped row, a row breaking one is
+ * reported to the error handler of {@link ReadOptions} with the column and the reason, like a conversion
+ * failure. Blank rows are not checked. A required column missing from the header fails every row, the other
+ * rules of a missing column are not checked.
  *
  * @author wq li
  * @since 0.3.2
@@ -36,4 +41,44 @@ public @interface ExcelColumn {
      * @return alias
      */
     String value();
+
+    /**
+     * 必填，值不能为空或空白
+     *
+     * @return required
+     * @since 0.4.0
+     */
+    boolean required() default false;
+
+    /**
+     * 文本的最大长度
+     *
+     * @return max length
+     * @since 0.4.0
+     */
+    int maxLength() default Integer.MAX_VALUE;
+
+    /**
+     * 文本须完整匹配的正则表达式，为空时不校验
+     *
+     * @return regex
+     * @since 0.4.0
+     */
+    String pattern() default "";
+
+    /**
+     * 数值的最小值（含）
+     *
+     * @return min
+     * @since 0.4.0
+     */
+    double min() default Double.NEGATIVE_INFINITY;
+
+    /**
+     * 数值的最大值（含）
+     *
+     * @return max
+     * @since 0.4.0
+     */
+    double max() default Double.POSITIVE_INFINITY;
 }
@@ -17,16 +17,41 @@ package top.leafage.common.poi;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.poi.EncryptedDocumentException;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.crypt.Decryptor;
+import org.apache.poi.poifs.crypt.EncryptionInfo;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.util.StringUtil;
-import org.springframework.beans.BeanUtils;
-import org.springframework.core.convert.support.DefaultConversionService;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
 
-import java.beans.PropertyDescriptor;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.Field;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
 
 /**
  * Utility class for reading and mapping Excel files from an InputStream to the specified type.
@@ -40,6 +65,11 @@ public class ExcelReader<T> {
 
     private static final Logger logger = StatusLogger.getLogger();
 
+    /**
+     * Xlsx streams up to this size in bytes are opened in memory, larger ones are spooled to a temporary file.
+     */
+    private static final int SPOOL_THRESHOLD = 256 * 1024;
+
     /**
      * Private constructor to prevent instantiation.
      */
@@ -56,7 +86,7 @@ public class ExcelReader<T> {
      * @return List of mapped objects.
      */
     public static <T> List<T> read(InputStream inputStream, Class<T> clazz) {
-        return read(inputStream, clazz, null);
+        return read(inputStream, clazz, (String) null);
     }
 
     /**
@@ -86,13 +116,555 @@ public class ExcelReader<T> {
         try (Workbook workbook = createWorkbook(inputStream, password)) {
             Sheet sheet = getSheet(workbook, sheetName);
             if (sheet == null) return Collections.emptyList();
-            return readSheet(sheet, clazz);
+
+            List<T> dataList = new ArrayList<>(Math.max(sheet.getLastRowNum() - sheet.getFirstRowNum(), 0));
+            readSheet(sheet, clazz, dataList::add, null, FormulaMode.FORMULA, ReadRecorder.of(null));
+            return dataList;
         } catch (IOException e) {
             logger.error("Failed to read from input stream.", e);
             return Collections.emptyList();
         }
     }
 
+    /**
+     * Reads a sheet with the streaming parser and hands the mapped rows to the sink in batches,
+     * so the whole sheet is never held in memory.
+     *
+     * @param inputStream The input stream of the Excel file.
+     * @param clazz       The class to map rows to.
+     * @param batchSink   Receives the mapped objects in row order, at most {@code batchSize} per call.
+     * @param batchSize   The size of each batch.
+     * @param <T>         The type of objects to map the Excel data to.
+     * @throws java.io.UncheckedIOException If the file can not be read or parsed.
+     * @since 0.4.0
+     */
+    public static <T> void read(InputStream inputStream, Class<T> clazz, Consumer<List<T>> batchSink, int batchSize) {
+        read(inputStream, clazz, batchSink, batchSize, ReadOptions.defaults());
+    }
+
+    /**
+     * Reads a sheet with the streaming parser and hands the mapped rows to the sink in batches,
+     * so the whole sheet is never held in memory. Rows that can not be mapped are reported
+     * to the error handler of the options.
+     *
+     * @param inputStream The input stream of the Excel file.
+     * @param clazz       The class to map rows to.
+     * @param batchSink   Receives the mapped objects in row order, at most {@code batchSize} per call.
+     *                    The list is handed off and not touched by the reader afterwards.
+     * @param batchSize   The size of each batch.
+     * @param options     The read options.
+     * @param <T>         The type of objects to map the Excel data to.
+     * @throws java.io.UncheckedIOException If the file can not be read or parsed.
+     * @since 0.4.0
+     */
+    public static <T> void read(InputStream inputStream, Class<T> clazz, Consumer<List<T>> batchSink, int batchSize,
+                                ReadOptions options) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be greater than 0");
+        }
+        BatchCollector<T> collector = new BatchCollector<>(batchSink, batchSize);
+        try {
+            readStreaming(inputStream, clazz, options, collector);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read from input stream.", e);
+        }
+        collector.flush();
+    }
+
+    /**
+     * Reads and maps data from the first sheet with the streaming (SAX) parser.
+     *
+     * @param inputStream The input stream of the Excel file.
+     * @param clazz       The class to map rows to.
+     * @param <T>         The type of objects to map the Excel data to.
+     * @return List of mapped objects.
+     * @since 0.4.0
+     */
+    public static <T> List<T> readStreaming(InputStream inputStream, Class<T> clazz) {
+        return readStreaming(inputStream, clazz, ReadOptions.defaults());
+    }
+
+    /**
+     * Reads and maps data from a specified sheet with the streaming (SAX) parser.
+     *
+     * @param inputStream The input stream of the Excel file.
+     * @param clazz       The class to map rows to.
+     * @param sheetName   (Optional) The name of the sheet to read.
+     * @param <T>         The type of objects to map the Excel data to.
+     * @return List of mapped objects.
+     * @since 0.4.0
+     */
+    public static <T> List<T> readStreaming(InputStream inputStream, Class<T> clazz, String sheetName) {
+        return readStreaming(inputStream, clazz, sheetName, null);
+    }
+
+    /**
+     * Reads and maps data from a specified sheet with the streaming (SAX) parser, with optional password protection.
+     *
+     * @param inputStream The input stream of the Excel file.
+     * @param clazz       The class to map rows to.
+     * @param sheetName   (Optional) The name of the sheet to read.
+     * @param password    (Optional) The password for protected files.
+     * @param <T>         The type of objects to map the Excel data to.
+     * @return List of mapped objects.
+     * @since 0.4.0
+     */
+    public static <T> List<T> readStreaming(InputStream inputStream, Class<T> clazz, String sheetName, String password) {
+        return readStreaming(inputStream, clazz, ReadOptions.builder().sheetName(sheetName).password(password).build());
+    }
+
+    /**
+     * Reads and maps data with the streaming (SAX) parser.
+     * <p>
+     * The sheet xml is parsed with the XSSF event model instead of building the workbook in memory,
+     * rows are mapped as soon as they are parsed. Legacy xls files fall back to the usermodel reader.
+     * <p>
+     * A zip package can only be read from a stream by inflating all of its entries in memory, so xlsx
+     * streams larger than 256 KiB are first copied to a temporary file, deleted when done, and opened from
+     * there: memory stays bounded whatever the size of the sheet. Encrypted xlsx files are decrypted in
+     * memory before being spooled, and xls files are always loaded whole. Use
+     * {@link #readStreaming(File, Class, ReadOptions)} for files already on disk.
+     *
+     * @param inputStream The input stream of the Excel file.
+     * @param clazz       The class to map rows to.
+     * @param options     The read options.
+     * @param <T>         The type of objects to map the Excel data to.
+     * @return List of mapped objects.
+     * @since 0.4.0
+     */
+    public static <T> List<T> readStreaming(InputStream inputStream, Class<T> clazz, ReadOptions options) {
+        List<T> dataList = new ArrayList<>();
+        try {
+            readStreaming(inputStream, clazz, options, dataList::add);
+            return dataList;
+        } catch (IOException e) {
+            logger.error("Failed to read from input stream.", e);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Reads and maps data of a local file with the streaming (SAX) parser.
+     * Xlsx files are opened directly from disk, so the package is never loaded into memory.
+     *
+     * @param file    The Excel file.
+     * @param clazz   The class to map rows to.
+     * @param options The read options.
+     * @param <T>     The type of objects to map the Excel data to.
+     * @return List of mapped objects.
+     * @since 0.4.0
+     */
+    public static <T> List<T> readStreaming(File file, Class<T> clazz, ReadOptions options) {
+        List<T> dataList = new ArrayList<>();
+        try {
+            readStreaming(file, clazz, options, dataList::add);
+            return dataList;
+        } catch (IOException e) {
+            logger.error("Failed to read from file.", e);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Reads and maps all sheets in parallel, the sheets sharing the same structure.
+     *
+     * @param inputStream The input stream of the Excel file.
+     * @param clazz       The class to map rows to.
+     * @param executor    Runs one parsing task per sheet.
+     * @param <T>         The type of objects to map the Excel data to.
+     * @return Mapped objects by sheet name, in workbook order.
+     * @since 0.4.0
+     */
+    public static <T> Map<String, List<T>> readAll(InputStream inputStream, Class<T> clazz, Executor executor) {
+        return readAll(inputStream, clazz, ReadOptions.defaults(), executor);
+    }
+
+    /**
+     * Reads and maps all sheets in parallel, the sheets sharing the same structure.
+     * The sheet name of the options is ignored, the error handler may be called from the executor threads
+     * but never concurrently.
+     *
+     * @param inputStream The input stream of the Excel file.
+     * @param clazz       The class to map rows to.
+     * @param options     The read options.
+     * @param executor    Runs one parsing task per sheet.
+     * @param <T>         The type of objects to map the Excel data to.
+     * @return Mapped objects by sheet name, in workbook order.
+     * @since 0.4.0
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Map<String, List<T>> readAll(InputStream inputStream, Class<T> clazz, ReadOptions options,
+                                                   Executor executor) {
+        Map<String, ? extends List<?>> result = readSheets(inputStream, sheetName -> clazz, options, executor);
+        return (Map<String, List<T>>) result;
+    }
+
+    /**
+     * Reads and maps the given sheets in parallel, each sheet to its own class.
+     *
+     * @param inputStream  The input stream of the Excel file.
+     * @param sheetClasses The class to map rows to by sheet name, other sheets are skipped.
+     * @param executor     Runs one parsing task per sheet.
+     * @return Mapped objects by sheet name, in workbook order.
+     * @since 0.4.0
+     */
+    public static Map<String, List<?>> readAll(InputStream inputStream, Map<String, Class<?>> sheetClasses,
+                                               Executor executor) {
+        return readAll(inputStream, sheetClasses, ReadOptions.defaults(), executor);
+    }
+
+    /**
+     * Reads and maps the given sheets in parallel, each sheet to its own class.
+     * The sheet name of the options is ignored, the error handler may be called from the executor threads
+     * but never concurrently.
+     *
+     * @param inputStream  The input stream of the Excel file.
+     * @param sheetClasses The class to map rows to by sheet name, other sheets are skipped.
+     * @param options      The read options.
+     * @param executor     Runs one parsing task per sheet.
+     * @return Mapped objects by sheet name, in workbook order.
+     * @since 0.4.0
+     */
+    public static Map<String, List<?>> readAll(InputStream inputStream, Map<String, Class<?>> sheetClasses,
+                                               ReadOptions options, Executor executor) {
+        return readSheets(inputStream, sheetClasses::get, options, executor);
+    }
+
+    /**
+     * Parses a sheet with the streaming (SAX) parser and hands every mapped row to the consumer.
+     *
+     * @param inputStream The input stream of the Excel file.
+     * @param clazz       The class to map rows to.
+     * @param options     The read options.
+     * @param consumer    Receives the mapped objects in row order.
+     * @param <T>         The type of objects to map the Excel data to.
+     * @throws IOException If the file can not be read or parsed.
+     */
+    protected static <T> void readStreaming(InputStream inputStream, Class<T> clazz, ReadOptions options,
+                                            Consumer<T> consumer) throws IOException {
+        ReadRecorder recorder = ReadRecorder.of(options);
+        try {
+            openWorkbook(recorder.count(inputStream), options.getPassword(),
+                    pkg -> readPackage(pkg, clazz, options, consumer, recorder),
+                    workbook -> {
+                        Sheet sheet = getSheet(workbook, options.getSheetName());
+                        if (sheet != null) {
+                            readSheet(sheet, clazz, consumer, options.getErrorHandler(), options.getFormulaMode(),
+                                    recorder);
+                        }
+                    });
+        } catch (IOException | RuntimeException e) {
+            recorder.fail(e);
+            throw e;
+        }
+        recorder.complete();
+    }
+
+    /**
+     * Parses a sheet of a local file with the streaming (SAX) parser and hands every mapped row to the consumer.
+     * Xlsx files are opened directly from disk, so the package is never loaded into memory.
+     *
+     * @param file     The Excel file.
+     * @param clazz    The class to map rows to.
+     * @param options  The read options.
+     * @param consumer Receives the mapped objects in row order.
+     * @param <T>      The type of objects to map the Excel data to.
+     * @throws IOException If the file can not be read or parsed.
+     * @since 0.4.0
+     */
+    protected static <T> void readStreaming(File file, Class<T> clazz, ReadOptions options,
+                                            Consumer<T> consumer) throws IOException {
+        if (FileMagic.valueOf(file) == FileMagic.OLE2) {
+            try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+                readStreaming(inputStream, clazz, options, consumer);
+            }
+            return;
+        }
+        ReadRecorder recorder = ReadRecorder.of(options);
+        recorder.bytesRead(file.length());
+        try {
+            OPCPackage pkg;
+            try {
+                pkg = OPCPackage.open(file, PackageAccess.READ);
+            } catch (InvalidFormatException e) {
+                throw new IOException("Invalid package.", e);
+            }
+            readPackage(pkg, clazz, options, consumer, recorder);
+        } catch (IOException | RuntimeException e) {
+            recorder.fail(e);
+            throw e;
+        }
+        recorder.complete();
+    }
+
+    /**
+     * Opens the Excel file for the streaming parser: xlsx files, encrypted or not, are handed over as a package,
+     * legacy xls files as a usermodel workbook since they have no xml parts.
+     *
+     * @param inputStream     The input stream of the Excel file.
+     * @param password        The password for protected files, if any.
+     * @param packageHandler  Reads a xlsx package, responsible for reverting it.
+     * @param workbookHandler Reads a xls workbook, closed afterwards.
+     * @throws IOException If the file can not be read or decrypted.
+     */
+    private static void openWorkbook(InputStream inputStream, String password, PackageHandler packageHandler,
+                                     Consumer<Workbook> workbookHandler) throws IOException {
+        InputStream is = FileMagic.prepareToCheckMagic(inputStream);
+        if (FileMagic.valueOf(is) != FileMagic.OLE2) {
+            openPackage(is, packageHandler);
+            return;
+        }
+        POIFSFileSystem fs = new POIFSFileSystem(is);
+        if (!fs.getRoot().hasEntry(Decryptor.DEFAULT_POIFS_ENTRY)) {
+            // xls 没有事件模型的 xml，回退到 usermodel
+            try (Workbook workbook = WorkbookFactory.create(fs.getRoot(), password)) {
+                workbookHandler.accept(workbook);
+            }
+            return;
+        }
+        try {
+            Decryptor decryptor = Decryptor.getInstance(new EncryptionInfo(fs));
+            if (!decryptor.verifyPassword(StringUtil.isBlank(password) ? Decryptor.DEFAULT_PASSWORD : password)) {
+                throw new EncryptedDocumentException("Password incorrect");
+            }
+            openPackage(decryptor.getDataStream(fs), packageHandler);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Failed to decrypt input stream.", e);
+        } finally {
+            fs.close();
+        }
+    }
+
+    /**
+     * Opens a xlsx package from a stream, in memory if it is small, from a temporary file otherwise, since
+     * {@link OPCPackage#open(InputStream)} inflates every entry of the zip into memory.
+     *
+     * @param inputStream    The input stream of the package.
+     * @param packageHandler Reads the package, responsible for reverting it.
+     * @throws IOException If the stream can not be read or spooled.
+     */
+    private static void openPackage(InputStream inputStream, PackageHandler packageHandler) throws IOException {
+        byte[] head = inputStream.readNBytes(SPOOL_THRESHOLD);
+        if (head.length < SPOOL_THRESHOLD) {
+            packageHandler.accept(openPackage(new ByteArrayInputStream(head)));
+            return;
+        }
+        Path file = Files.createTempFile("excel-", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(file)) {
+                out.write(head);
+                inputStream.transferTo(out);
+            }
+            OPCPackage pkg;
+            try {
+                pkg = OPCPackage.open(file.toFile(), PackageAccess.READ);
+            } catch (InvalidFormatException e) {
+                throw new IOException("Invalid package.", e);
+            }
+            packageHandler.accept(pkg);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static OPCPackage openPackage(InputStream inputStream) throws IOException {
+        try {
+            return OPCPackage.open(inputStream);
+        } catch (InvalidFormatException e) {
+            throw new IOException("Invalid package.", e);
+        }
+    }
+
+    /**
+     * Locates the sheet part in the package and parses it.
+     *
+     * @param pkg      The opened package, reverted when done.
+     * @param clazz    The class to map rows to.
+     * @param options  The read options.
+     * @param consumer Receives the mapped objects in row order.
+     * @param recorder Records the metrics of the read.
+     * @param <T>      The type of objects to map the Excel data to.
+     * @throws IOException If the package can not be parsed.
+     */
+    private static <T> void readPackage(OPCPackage pkg, Class<T> clazz, ReadOptions options, Consumer<T> consumer,
+                                        ReadRecorder recorder) throws IOException {
+        String sheetName = options.getSheetName();
+        try {
+            XSSFReader reader = new XSSFReader(pkg);
+            SheetContext context = SheetContext.of(pkg, reader, options);
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream sheet = sheets.next()) {
+                    if (StringUtil.isBlank(sheetName) || sheetName.equals(sheets.getSheetName())) {
+                        SheetRowListener<T> listener = SheetRowListener.of(clazz, consumer, options, recorder);
+                        parseSheet(sheet, context.handler(sheets.getSheetName(), listener), recorder);
+                        listener.finish();
+                        return;
+                    }
+                }
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Failed to parse sheet.", e);
+        } finally {
+            pkg.revert();
+        }
+    }
+
+    /**
+     * Reads the sheets resolved to a class, xlsx sheet parts in parallel.
+     *
+     * @param inputStream  The input stream of the Excel file.
+     * @param sheetClasses Resolves the class of a sheet, null to skip it.
+     * @param options      The read options.
+     * @param executor     Runs one parsing task per sheet.
+     * @return Mapped objects by sheet name, in workbook order.
+     */
+    private static Map<String, List<?>> readSheets(InputStream inputStream, Function<String, Class<?>> sheetClasses,
+                                                   ReadOptions options, Executor executor) {
+        Map<String, List<?>> result = new LinkedHashMap<>();
+        Consumer<RowError> errorHandler = options.getErrorHandler() == null
+                ? null : synchronizedHandler(options.getErrorHandler());
+        ReadRecorder recorder = ReadRecorder.of(options);
+        try {
+            openWorkbook(recorder.count(inputStream), options.getPassword(),
+                    pkg -> readPackageSheets(pkg, sheetClasses, options, errorHandler, executor, result, recorder),
+                    workbook -> {
+                        // usermodel 不是线程安全的，xls 按顺序读取
+                        for (Sheet sheet : workbook) {
+                            Class<?> clazz = sheetClasses.apply(sheet.getSheetName());
+                            if (clazz != null) {
+                                List<Object> dataList = new ArrayList<>();
+                                readSheet(sheet, clazz, dataList::add, errorHandler, options.getFormulaMode(),
+                                        recorder);
+                                result.put(sheet.getSheetName(), dataList);
+                            }
+                        }
+                    });
+        } catch (IOException e) {
+            recorder.fail(e);
+            logger.error("Failed to read from input stream.", e);
+            return Collections.emptyMap();
+        } catch (RuntimeException e) {
+            recorder.fail(e);
+            throw e;
+        }
+        recorder.complete();
+        return result;
+    }
+
+    /**
+     * Parses every sheet part resolved to a class in its own task. The sheet streams are opened in order
+     * on the calling thread, the read-only shared strings table is shared by all tasks.
+     *
+     * @param pkg          The opened package, reverted when all tasks are done.
+     * @param sheetClasses Resolves the class of a sheet, null to skip it.
+     * @param options      The read options.
+     * @param errorHandler Receives the rows that can not be mapped, or null to log them.
+     * @param executor     Runs one parsing task per sheet.
+     * @param result       Receives the mapped objects by sheet name.
+     * @param recorder     Records the metrics of the read, forked for each task.
+     * @throws IOException If the package or a sheet can not be parsed.
+     */
+    private static void readPackageSheets(OPCPackage pkg, Function<String, Class<?>> sheetClasses, ReadOptions options,
+                                          Consumer<RowError> errorHandler, Executor executor,
+                                          Map<String, List<?>> result, ReadRecorder recorder) throws IOException {
+        Map<String, CompletableFuture<List<?>>> tasks = new LinkedHashMap<>();
+        try {
+            XSSFReader reader = new XSSFReader(pkg);
+            SheetContext context = SheetContext.of(pkg, reader, options);
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                InputStream sheet = sheets.next();
+                String sheetName = sheets.getSheetName();
+                Class<?> clazz = sheetClasses.apply(sheetName);
+                if (clazz == null) {
+                    sheet.close();
+                    continue;
+                }
+                tasks.put(sheetName, CompletableFuture.supplyAsync(
+                        () -> readSheetPart(sheet, context, sheetName, clazz, errorHandler, recorder), executor));
+            }
+            for (Map.Entry<String, CompletableFuture<List<?>>> task : tasks.entrySet()) {
+                result.put(task.getKey(), task.getValue().join());
+            }
+        } catch (OpenXML4JException | SAXException e) {
+            throw new IOException("Failed to parse sheet.", e);
+        } catch (CompletionException e) {
+            // 抛出任务自身的异常，和单线程读取时一致
+            if (e.getCause() instanceof UncheckedIOException ue) {
+                throw ue.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        } finally {
+            // 所有任务结束后才能释放 package
+            for (CompletableFuture<List<?>> task : tasks.values()) {
+                task.exceptionally(e -> null).join();
+            }
+            pkg.revert();
+        }
+    }
+
+    private static <T> List<?> readSheetPart(InputStream sheet, SheetContext context, String sheetName, Class<T> clazz,
+                                             Consumer<RowError> errorHandler, ReadRecorder recorder) {
+        List<T> dataList = new ArrayList<>();
+        ReadRecorder fork = recorder.fork();
+        try (sheet) {
+            parseSheet(sheet, context.handler(sheetName,
+                    new SheetRowListener<>(clazz, dataList::add, errorHandler, fork, null)), fork);
+            return dataList;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (SAXException | ParserConfigurationException e) {
+            throw new UncheckedIOException(new IOException("Failed to parse sheet.", e));
+        } finally {
+            recorder.merge(fork);
+        }
+    }
+
+    static Consumer<RowError> synchronizedHandler(Consumer<RowError> errorHandler) {
+        return error -> {
+            synchronized (errorHandler) {
+                errorHandler.accept(error);
+            }
+        };
+    }
+
+    /**
+     * Loads the shared strings table of the package, compact if the options ask for it.
+     *
+     * @param pkg     The package.
+     * @param options The read options.
+     * @return Looks up a shared string by index, thread-safe.
+     * @throws IOException   If the table can not be read.
+     * @throws SAXException If the table can not be parsed.
+     */
+    private static IntFunction<String> loadSharedStrings(OPCPackage pkg, ReadOptions options)
+            throws IOException, SAXException {
+        if (options.isCompactSharedStrings()) {
+            return CompactSharedStrings.load(pkg, options.getSharedStringsMemoryLimit());
+        }
+        ReadOnlySharedStringsTable table = new ReadOnlySharedStringsTable(pkg, false);
+        return index -> table.getItemAt(index).getString();
+    }
+
+    private static void parseSheet(InputStream sheet, StreamingSheetHandler handler, ReadRecorder recorder)
+            throws IOException, SAXException, ParserConfigurationException {
+        XMLReader xmlReader = XMLHelper.newXMLReader();
+        xmlReader.setContentHandler(handler);
+        long start = recorder.startParse();
+        try {
+            xmlReader.parse(new InputSource(sheet));
+        } finally {
+            recorder.endParse(start);
+        }
+    }
+
     /**
      * Creates a Workbook instance from the input stream, with optional password handling.
      *
@@ -121,33 +693,52 @@ public class ExcelReader<T> {
     /**
      * Reads and maps the rows of a sheet to instances of the specified class.
      *
-     * @param sheet The sheet to read data from.
-     * @param clazz The class to map rows to.
-     * @param <T>   The type of objects to map the Excel data to.
-     * @return List of mapped objects.
+     * @param sheet        The sheet to read data from.
+     * @param clazz        The class to map rows to.
+     * @param consumer     Receives the mapped objects in row order.
+     * @param errorHandler Receives the rows that can not be mapped, or null to log them.
+     * @param formulaMode  How formula cells are read.
+     * @param recorder     Records the metrics of the read.
+     * @param <T>          The type of objects to map the Excel data to.
      */
-    private static <T> List<T> readSheet(Sheet sheet, Class<T> clazz) {
+    private static <T> void readSheet(Sheet sheet, Class<T> clazz, Consumer<T> consumer, Consumer<RowError> errorHandler,
+                                      FormulaMode formulaMode, ReadRecorder recorder) {
         int firstRowNum = sheet.getFirstRowNum();
         int lastRowNum = sheet.getLastRowNum();
 
-        if (lastRowNum <= firstRowNum) return Collections.emptyList();
+        if (lastRowNum <= firstRowNum) return;
 
-        List<String> headers = readHeader(sheet.getRow(firstRowNum));
-        List<T> dataList = new ArrayList<>(lastRowNum - firstRowNum);
+        RowMapper<T> mapper = RowMapper.of(clazz, readHeader(sheet.getRow(firstRowNum)));
+        RawCell cell = new RawCell();
+        // 求值器内部按单元格缓存结果，整个 sheet 共用一个
+        FormulaEvaluator evaluator = formulaMode == FormulaMode.EVALUATE
+                ? sheet.getWorkbook().getCreationHelper().createFormulaEvaluator() : null;
 
+        long start = recorder.startParse();
         for (int i = firstRowNum + 1; i <= lastRowNum; i++) {
             Row row = sheet.getRow(i);
-            if (isRowEmpty(row)) continue;
+            if (row == null) continue;
 
-            Map<String, Object> rowData = mapRowToHeaders(clazz, row, headers);
-            T obj = convert(rowData, clazz);
-            if (obj != null) {
-                dataList.add(obj);
-            } else {
-                logger.warn("Skipping row {} due to conversion failure", i + 1);
+            // 空行在解码时顺带判断，只看映射的列
+            Object[] values = new Object[mapper.size()];
+            boolean empty = true;
+            for (int slot = 0; slot < values.length; slot++) {
+                cell.load(row.getCell(mapper.column(slot)), formulaMode, evaluator);
+                if (empty && !cell.isBlank()) {
+                    empty = false;
+                }
+                values[slot] = mapper.decode(slot, cell);
             }
+            if (empty) {
+                recorder.skippedRows++;
+                continue;
+            }
+            recorder.rows++;
+            long handoff = recorder.startHandoff();
+            mapRow(mapper, i, values, consumer, errorHandler, recorder);
+            recorder.endHandoff(handoff);
         }
-        return dataList;
+        recorder.endParse(start);
     }
 
     /**
@@ -168,130 +759,402 @@ public class ExcelReader<T> {
     }
 
     /**
-     * Maps a row's cell values to their corresponding header names.
+     * Converts the row values into an instance of the specified class and hands it to the consumer.
+     * A row that can not be converted is reported to the error handler, or logged and skipped.
      *
-     * @param row     The row to read.
-     * @param headers The list of header names.
-     * @return A map of column names to cell values.
+     * @param mapper       The row mapper of the class.
+     * @param rowNum       The zero based row number.
+     * @param values       The cell values, indexed by slot.
+     * @param consumer     Receives the mapped object.
+     * @param errorHandler Receives the row error, or null to log it.
+     * @param recorder     Records the conversion time and failures.
+     * @param <T>          The type of object to create.
      */
-    private static <T> Map<String, Object> mapRowToHeaders(Class<T> clazz, Row row, List<String> headers) {
-        Map<String, Object> rowData = new HashMap<>();
-        for (int i = 0; i < headers.size(); i++) {
-            String headerKey = getHeaderKey(clazz, headers.get(i));
-            if (headerKey != null) {
-                Object cellValue = readCell(row.getCell(i));
-                rowData.put(headerKey, cellValue);
+    private static <T> void mapRow(RowMapper<T> mapper, int rowNum, Object[] values, Consumer<T> consumer,
+                                   Consumer<RowError> errorHandler, ReadRecorder recorder) {
+        T obj;
+        long start = recorder.startConversion();
+        try {
+            obj = mapper.map(values);
+        } catch (Exception e) {
+            recorder.endConversion(start);
+            recorder.failedRows++;
+            // 避免抛出异常，中断读取流程
+            if (errorHandler == null) {
+                logSkippedRow(rowNum, e);
+            } else {
+                errorHandler.accept(rowError(rowNum, e));
             }
+            return;
         }
-        return rowData;
+        recorder.endConversion(start);
+        consumer.accept(obj);
+    }
+
+    private static void logSkippedRow(int rowNum, Exception e) {
+        logger.warn("Skipping row {} due to conversion failure", rowNum + 1, e);
+    }
+
+    private static RowError rowError(int rowNum, Exception e) {
+        String column = e instanceof RowMapper.MappingException me ? me.getColumn() : null;
+        return new RowError(rowNum + 1, column, e.getMessage(), e);
     }
 
     /**
-     * Converts the row data map into an instance of the specified class.
+     * Reads a cell's value as a String.
      *
-     * @param dataMap The map of column names to values.
-     * @param clazz   The class to instantiate.
-     * @param <T>     The type of object to create.
-     * @return An instance of the class populated with the row data.
+     * @param cell The cell to read.
+     * @return The cell's value as a String.
      */
-    private static <T> T convert(Map<String, Object> dataMap, Class<T> clazz) {
-        try {
-            T instance = clazz.getDeclaredConstructor().newInstance();
+    private static String readCellAsString(Cell cell) {
+        return cell == null ? "" : cell.toString();
+    }
 
-            for (Map.Entry<String, Object> entry : dataMap.entrySet()) {
-                String field = entry.getKey();
-                Object value = entry.getValue();
+    /**
+     * What the sheets of a xlsx package share: the shared strings, the date styles and the formula evaluator.
+     *
+     * @param sharedStrings Looks up a shared string by index.
+     * @param dateStyles    Whether each cell style, by index, is a date format.
+     * @param formulaMode   How formula cells are read.
+     * @param evaluator     Evaluates formula cells, null unless the mode is {@link FormulaMode#EVALUATE}.
+     */
+    private record SheetContext(IntFunction<String> sharedStrings, boolean[] dateStyles, FormulaMode formulaMode,
+                                LazyFormulaEvaluator evaluator) {
 
-                PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(clazz, field);
-                if (descriptor != null && descriptor.getWriteMethod() != null) {
-                    Object convertedValue = DefaultConversionService.getSharedInstance().convert(value, descriptor.getPropertyType());
-                    descriptor.getWriteMethod().invoke(instance, convertedValue);
-                }
-            }
-            return instance;
-        } catch (Exception e) {
-            logger.error("Failed to convert row to object", e);
-            return null; // 避免抛出异常，中断读取流程
+        private static SheetContext of(OPCPackage pkg, XSSFReader reader, ReadOptions options)
+                throws IOException, SAXException, InvalidFormatException {
+            return new SheetContext(loadSharedStrings(pkg, options),
+                    StreamingSheetHandler.dateStyles(reader.getStylesTable()), options.getFormulaMode(),
+                    options.getFormulaMode() == FormulaMode.EVALUATE ? new LazyFormulaEvaluator(pkg) : null);
+        }
+
+        private StreamingSheetHandler handler(String sheetName, StreamingSheetHandler.RowListener listener) {
+            StreamingSheetHandler.FormulaEvaluation evaluation = evaluator == null
+                    ? null : (rowNum, column) -> evaluator.evaluate(sheetName, rowNum, column);
+            return new StreamingSheetHandler(sharedStrings, dateStyles, formulaMode, evaluation, listener);
         }
     }
 
     /**
-     * Reads a cell's value as an Object.
-     *
-     * @param cell The cell to read.
-     * @return The cell's value as an Object.
-     */
-    private static Object readCell(Cell cell) {
-        if (cell == null) {
-            return null;
-        }
-        return switch (cell.getCellType()) {
-            case STRING -> cell.getStringCellValue();
-            case NUMERIC -> cell.getNumericCellValue();
-            case BOOLEAN -> cell.getBooleanCellValue();
-            case FORMULA -> cell.getCellFormula();
-            case ERROR -> cell.getErrorCellValue();
-            default -> null;
-        };
+     * Reads an opened xlsx package.
+     */
+    @FunctionalInterface
+    private interface PackageHandler {
+
+        void accept(OPCPackage pkg) throws IOException;
     }
 
     /**
-     * Reads a cell's value as a String.
+     * Row listener of the streaming parsers, xlsx and csv, the first row is the header.
      *
-     * @param cell The cell to read.
-     * @return The cell's value as a String.
+     * @param <T> The type to map the Excel rows to
      */
-    private static String readCellAsString(Cell cell) {
-        return cell == null ? "" : cell.toString();
-    }
+    static final class SheetRowListener<T> implements StreamingSheetHandler.RowListener {
+
+        private final Class<T> clazz;
+        private final Consumer<T> consumer;
+        private final Consumer<RowError> errorHandler;
+        private final ReadRecorder recorder;
+        private final ConversionPipeline<T> pipeline;
+        private RowMapper<T> mapper;
+        private List<String> headers;
+        private Object[] values;
+        private boolean empty;
 
-    private static <T> String getHeaderKey(Class<T> clazz, String header) {
-        if (clazz == null || header == null) {
-            return null;
+        private SheetRowListener(Class<T> clazz, Consumer<T> consumer, Consumer<RowError> errorHandler,
+                                 ReadRecorder recorder, ConversionPipeline<T> pipeline) {
+            this.clazz = clazz;
+            this.consumer = consumer;
+            this.errorHandler = errorHandler;
+            this.recorder = recorder;
+            this.pipeline = pipeline;
         }
-        try {
-            List<Field> allFields = new ArrayList<>();
-            Class<?> currentClass = clazz;
 
-            while (currentClass != null && currentClass != Object.class) {
-                allFields.addAll(Arrays.asList(currentClass.getDeclaredFields()));
-                currentClass = currentClass.getSuperclass();
+        /**
+         * Creates the listener of a sheet, converting rows as configured by the options.
+         *
+         * @param clazz    The class to map rows to.
+         * @param consumer Receives the mapped objects in row order.
+         * @param options  The read options.
+         * @param recorder Records the metrics of the read.
+         * @param <T>      The type to map the Excel rows to.
+         * @return The listener, {@link #finish()} to be called when the sheet has been parsed.
+         */
+        static <T> SheetRowListener<T> of(Class<T> clazz, Consumer<T> consumer, ReadOptions options,
+                                          ReadRecorder recorder) {
+            return new SheetRowListener<>(clazz, consumer, options.getErrorHandler(), recorder,
+                    ConversionPipeline.of(options, consumer, recorder));
+        }
+
+        /**
+         * Creates the listener of a part of a file whose header has already been read, rows are converted
+         * on the calling thread.
+         *
+         * @param mapper       The mapper built from the header.
+         * @param consumer     Receives the mapped objects in row order.
+         * @param errorHandler Receives the rows that can not be mapped, or null to log them.
+         * @param recorder     Records the metrics of the read.
+         * @param <T>          The type to map the Excel rows to.
+         * @return The listener.
+         */
+        static <T> SheetRowListener<T> of(RowMapper<T> mapper, Consumer<T> consumer, Consumer<RowError> errorHandler,
+                                          ReadRecorder recorder) {
+            SheetRowListener<T> listener = new SheetRowListener<>(null, consumer, errorHandler, recorder, null);
+            listener.mapper = mapper;
+            return listener;
+        }
+
+        /**
+         * The mapper built from the header row.
+         *
+         * @return The mapper, or null if no row has been parsed.
+         */
+        RowMapper<T> mapper() {
+            return mapper;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            if (mapper == null) {
+                headers = new ArrayList<>();
+            } else {
+                // 每行新建数组，并行转换时会交给其他线程
+                values = new Object[mapper.size()];
+                empty = true;
             }
+        }
 
-            for (Field field : allFields) {
-                String fieldName = field.getName();
+        @Override
+        public boolean accepts(int column) {
+            // 表头行读取全部列
+            return mapper == null || mapper.slot(column) >= 0;
+        }
 
-                // 如果header直接匹配字段名，直接返回字段名
-                if (header.equals(fieldName)) {
-                    return fieldName;
+        @Override
+        public void cell(int column, RawCell cell) {
+            if (mapper == null) {
+                while (headers.size() < column) {
+                    headers.add("");
                 }
+                Object value = cell.value();
+                headers.add(value == null ? "" : value.toString());
+                return;
+            }
+            int slot = mapper.slot(column);
+
+            // 空行在解码时顺带判断，只看映射的列
+            if (empty && !cell.isBlank()) {
+                empty = false;
+            }
+            values[slot] = mapper.decode(slot, cell);
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (mapper == null) {
+                mapper = RowMapper.of(clazz, headers);
+                headers = null;
+                return;
+            }
+            if (empty) {
+                recorder.skippedRows++;
+                return;
+            }
+            recorder.rows++;
+            long handoff = recorder.startHandoff();
+            if (pipeline == null) {
+                mapRow(mapper, rowNum, values, consumer, errorHandler, recorder);
+            } else {
+                pipeline.submit(mapper, rowNum, values);
+            }
+            recorder.endHandoff(handoff);
+        }
+
+        /**
+         * Hands the rows still being converted to the consumer, called when the sheet has been parsed.
+         */
+        void finish() {
+            if (pipeline != null) {
+                pipeline.finish();
+            }
+        }
+    }
 
-                // 检查ExcelColumn注解
-                ExcelColumn excelColumn = field.getAnnotation(ExcelColumn.class);
-                if (excelColumn != null) {
-                    String displayName = excelColumn.value();
-                    // 如果header匹配注解的显示名称，返回对应的字段名
-                    if (header.equals(displayName)) {
-                        return fieldName;
+    /**
+     * Converts the parsed rows in batches on an executor while the parser keeps reading.
+     * <p>
+     * At most two batches per processor are in flight, the parser thread waits for the oldest one when
+     * the window is full, so memory stays bounded. Converted rows and row errors are handed over on the
+     * parser thread in row order.
+     *
+     * @param <T> The type to map the Excel rows to
+     */
+    private static final class ConversionPipeline<T> {
+
+        private final Executor executor;
+        private final int batchSize;
+        private final int maxInFlight;
+        private final Consumer<T> consumer;
+        private final Consumer<RowError> errorHandler;
+        private final ReadRecorder recorder;
+        private final Deque<CompletableFuture<ConvertedRows>> inFlight = new ArrayDeque<>();
+
+        private RowMapper<T> mapper;
+        private int[] rowNums;
+        private Object[][] rows;
+        private int size;
+
+        private ConversionPipeline(Executor executor, int batchSize, Consumer<T> consumer,
+                                   Consumer<RowError> errorHandler, ReadRecorder recorder) {
+            this.executor = executor;
+            this.batchSize = batchSize;
+            this.maxInFlight = Runtime.getRuntime().availableProcessors() * 2;
+            this.consumer = consumer;
+            this.errorHandler = errorHandler;
+            this.recorder = recorder;
+        }
+
+        /**
+         * Creates the pipeline configured by the options.
+         *
+         * @param options  The read options.
+         * @param consumer Receives the mapped objects in row order.
+         * @param recorder Records the metrics of the read.
+         * @param <T>      The type to map the Excel rows to.
+         * @return The pipeline, or null if rows are converted on the parser thread.
+         */
+        private static <T> ConversionPipeline<T> of(ReadOptions options, Consumer<T> consumer, ReadRecorder recorder) {
+            return options.getConversionExecutor() == null ? null : new ConversionPipeline<>(
+                    options.getConversionExecutor(), options.getConversionBatchSize(), consumer,
+                    options.getErrorHandler(), recorder);
+        }
+
+        private void submit(RowMapper<T> rowMapper, int rowNum, Object[] values) {
+            if (rows == null) {
+                rowNums = new int[batchSize];
+                rows = new Object[batchSize][];
+            }
+            mapper = rowMapper;
+            rowNums[size] = rowNum;
+            rows[size++] = values;
+            if (size == batchSize) {
+                dispatch();
+            }
+        }
+
+        private void finish() {
+            dispatch();
+            while (!inFlight.isEmpty()) {
+                emit(inFlight.poll());
+            }
+        }
+
+        private void dispatch() {
+            if (size == 0) return;
+            if (inFlight.size() >= maxInFlight) {
+                emit(inFlight.poll());
+            }
+            RowMapper<T> batchMapper = mapper;
+            int[] batchRowNums = rowNums;
+            Object[][] batchRows = rows;
+            int batchLength = size;
+            inFlight.add(CompletableFuture.supplyAsync(
+                    () -> convert(batchMapper, batchRowNums, batchRows, batchLength), executor));
+            recorder.buffered(inFlight.size() * batchSize);
+            rowNums = new int[batchSize];
+            rows = new Object[batchSize][];
+            size = 0;
+        }
+
+        private ConvertedRows convert(RowMapper<T> batchMapper, int[] batchRowNums, Object[][] batchRows, int length) {
+            Object[] results = new Object[length];
+            RowError[] errors = null;
+            int failed = 0;
+            // 在转换线程上计时，由解析线程汇总
+            long start = recorder.isTimed() ? System.nanoTime() : 0;
+            for (int i = 0; i < length; i++) {
+                try {
+                    results[i] = batchMapper.map(batchRows[i]);
+                } catch (Exception e) {
+                    failed++;
+                    if (errorHandler == null) {
+                        logSkippedRow(batchRowNums[i], e);
+                    } else {
+                        if (errors == null) {
+                            errors = new RowError[length];
+                        }
+                        errors[i] = rowError(batchRowNums[i], e);
                     }
                 }
             }
-        } catch (Exception e) {
-            logger.error("Failed to introspect class: {}", clazz, e);
+            long nanos = recorder.isTimed() ? System.nanoTime() - start : 0;
+            return new ConvertedRows(results, errors, failed, nanos);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void emit(CompletableFuture<ConvertedRows> future) {
+            ConvertedRows converted;
+            try {
+                converted = future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException re) throw re;
+                if (e.getCause() instanceof Error error) throw error;
+                throw e;
+            }
+            recorder.failedRows += converted.failed;
+            recorder.conversionNanos += converted.nanos;
+            for (int i = 0; i < converted.results.length; i++) {
+                if (converted.errors != null && converted.errors[i] != null) {
+                    errorHandler.accept(converted.errors[i]);
+                } else if (converted.results[i] != null) {
+                    consumer.accept((T) converted.results[i]);
+                }
+            }
+        }
+
+        /**
+         * The outcome of a batch: the mapped objects, and the errors of the failed rows if any.
+         *
+         * @param results The mapped objects, null for failed rows.
+         * @param errors  The row errors, null if all rows succeeded or errors are logged.
+         * @param failed  The number of failed rows.
+         * @param nanos   The conversion time, 0 if not timed.
+         */
+        private record ConvertedRows(Object[] results, RowError[] errors, int failed, long nanos) {
         }
-        return null;
     }
 
-    private static boolean isRowEmpty(Row row) {
-        if (row == null) return true;
-        for (int i = row.getFirstCellNum(); i < row.getLastCellNum(); i++) {
-            Cell cell = row.getCell(i);
-            // 有一个非空单元格，行就不是空的
-            if (cell != null && cell.getCellType() != CellType.BLANK && !cell.toString().trim().isEmpty()) {
-                return false;
+    /**
+     * Collects mapped objects into batches of a fixed size.
+     *
+     * @param <T> The type to map the Excel rows to
+     */
+    static final class BatchCollector<T> implements Consumer<T> {
+
+        private final Consumer<List<T>> batchSink;
+        private final int batchSize;
+        private List<T> batch;
+
+        BatchCollector(Consumer<List<T>> batchSink, int batchSize) {
+            this.batchSink = batchSink;
+            this.batchSize = batchSize;
+            this.batch = new ArrayList<>(batchSize);
+        }
+
+        @Override
+        public void accept(T obj) {
+            batch.add(obj);
+            if (batch.size() == batchSize) {
+                flush();
             }
         }
-        return true;
+
+        void flush() {
+            if (batch.isEmpty()) return;
+            List<T> full = batch;
+            batch = new ArrayList<>(batchSize);
+            batchSink.accept(full);
+        }
     }
 
 }
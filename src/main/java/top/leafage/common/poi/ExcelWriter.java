@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import top.leafage.common.beans.PropertyAccessors;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Utility class for writing objects to an Excel file, the counterpart of {@link ExcelReader}.
+ * <p>
+ * Columns are the fields annotated with {@link ExcelColumn}, headed by the annotation value; a class
+ * without annotated fields exports all its readable fields headed by the field name. Rows are written
+ * with {@link SXSSFWorkbook}, only a window of rows is kept in memory, so exports are constant-memory;
+ * {@link #writeStreaming(OutputStream, Class, Iterator, String)} also streams the zip itself.
+ * <p>
+ * Excel keeps 15 significant digits of a number: longs, {@link BigInteger} and {@link BigDecimal} values
+ * with more, and non-finite doubles, are written as text so that no digit is lost. A sheet holds at most
+ * 1,048,575 rows besides the header, writing more fails with an {@link IllegalStateException}.
+ *
+ * @param <T> The type of the exported objects
+ * @author wq li
+ * @since 0.4.0
+ */
+public class ExcelWriter<T> {
+
+    /**
+     * The default sheet name.
+     */
+    public static final String DEFAULT_SHEET_NAME = "sheet1";
+
+    /**
+     * The default number of rows kept in memory.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = SXSSFWorkbook.DEFAULT_WINDOW_SIZE;
+
+    /**
+     * The most rows of a xlsx sheet, the header included.
+     */
+    static final int MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    private static final int MAX_DIGITS = 15;
+
+    private static final ClassValue<List<Column>> COLUMNS = new ClassValue<>() {
+        @Override
+        protected List<Column> computeValue(Class<?> type) {
+            return resolveColumns(type);
+        }
+    };
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    protected ExcelWriter() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Writes the objects to the default sheet "sheet1".
+     *
+     * @param outputStream The output stream to write the Excel file to, not closed.
+     * @param clazz        The class of the objects.
+     * @param rows         The objects to write, one per row.
+     * @param <T>          The type of the exported objects.
+     * @throws UncheckedIOException If the file can not be written.
+     */
+    public static <T> void write(OutputStream outputStream, Class<T> clazz, Iterable<T> rows) {
+        write(outputStream, clazz, rows.iterator(), DEFAULT_SHEET_NAME, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Writes the objects to the default sheet "sheet1".
+     *
+     * @param outputStream The output stream to write the Excel file to, not closed.
+     * @param clazz        The class of the objects.
+     * @param rows         The objects to write, one per row.
+     * @param <T>          The type of the exported objects.
+     * @throws UncheckedIOException If the file can not be written.
+     */
+    public static <T> void write(OutputStream outputStream, Class<T> clazz, Stream<T> rows) {
+        write(outputStream, clazz, rows.iterator(), DEFAULT_SHEET_NAME, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Writes the objects to a sheet.
+     *
+     * @param outputStream The output stream to write the Excel file to, not closed.
+     * @param clazz        The class of the objects.
+     * @param rows         The objects to write, one per row.
+     * @param sheetName    The name of the sheet.
+     * @param windowSize   The number of rows kept in memory before they are flushed to disk.
+     * @param <T>          The type of the exported objects.
+     * @throws UncheckedIOException     If the file can not be written.
+     * @throws IllegalStateException    If there are more rows than a sheet holds.
+     * @throws IllegalArgumentException If the sheet name is not valid in Excel.
+     */
+    public static <T> void write(OutputStream outputStream, Class<T> clazz, Iterator<T> rows, String sheetName,
+                                 int windowSize) {
+        List<Column> columns = COLUMNS.get(clazz);
+        // createSheet 会截断过长的名称，和流式写出一样直接拒绝
+        WorkbookUtil.validateSheetName(sheetName);
+        // close() 同时删除临时文件
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(windowSize)) {
+            workbook.setCompressTempFiles(true);
+            Sheet sheet = workbook.createSheet(sheetName);
+            CellStyles styles = new CellStyles(workbook);
+
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < columns.size(); i++) {
+                Cell cell = header.createCell(i);
+                cell.setCellValue(columns.get(i).header);
+                cell.setCellStyle(styles.header);
+            }
+
+            int rowNum = 1;
+            while (rows.hasNext()) {
+                checkRowLimit(rowNum, sheetName);
+                T obj = rows.next();
+                Row row = sheet.createRow(rowNum++);
+                for (int i = 0; i < columns.size(); i++) {
+                    writeCell(row, i, columns.get(i).getter.apply(obj), styles);
+                }
+            }
+            workbook.write(outputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write to output stream.", e);
+        }
+    }
+
+    /**
+     * Writes the objects to a sheet, streaming the xlsx file to the output stream as rows are consumed.
+     * <p>
+     * Unlike {@link #write(OutputStream, Class, Iterator, String, int)}, nothing is buffered in memory or
+     * on disk, the first bytes are written before the first row is read. Strings are written inline.
+     * If the rows can not be produced the file is left unfinished, it does not open as a valid workbook.
+     *
+     * @param outputStream The output stream to write the Excel file to, not closed.
+     * @param clazz        The class of the objects.
+     * @param rows         The objects to write, one per row.
+     * @param sheetName    The name of the sheet.
+     * @param <T>          The type of the exported objects.
+     * @throws UncheckedIOException     If the file can not be written.
+     * @throws IllegalStateException    If there are more rows than a sheet holds.
+     * @throws IllegalArgumentException If the sheet name is not valid in Excel.
+     */
+    public static <T> void writeStreaming(OutputStream outputStream, Class<T> clazz, Iterator<T> rows,
+                                          String sheetName) {
+        List<Column> columns = COLUMNS.get(clazz);
+        List<String> headers = columns.stream().map(Column::header).toList();
+        Object[] values = new Object[columns.size()];
+        try {
+            StreamingSheetWriter writer = new StreamingSheetWriter(outputStream, sheetName, headers);
+            while (rows.hasNext()) {
+                T obj = rows.next();
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = columns.get(i).getter.apply(obj);
+                }
+                writer.writeRow(values);
+            }
+            // 出错时不结束文件，写出的内容不是有效的 xlsx
+            writer.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write to output stream.", e);
+        }
+    }
+
+    /**
+     * Writes a value to a cell, typed by the value class. Null values leave the cell blank.
+     *
+     * @param row    The row.
+     * @param column The column index.
+     * @param value  The value.
+     * @param styles The shared cell styles.
+     */
+    private static void writeCell(Row row, int column, Object value, CellStyles styles) {
+        if (value == null) {
+            return;
+        }
+        Cell cell = row.createCell(column);
+        if (value instanceof Number number) {
+            if (isNumeric(number)) {
+                cell.setCellValue(number.doubleValue());
+            } else {
+                cell.setCellValue(toText(number));
+            }
+        } else if (value instanceof Boolean bool) {
+            cell.setCellValue(bool);
+        } else if (value instanceof LocalDateTime dateTime) {
+            cell.setCellValue(dateTime);
+            cell.setCellStyle(styles.dateTime);
+        } else if (value instanceof LocalDate date) {
+            cell.setCellValue(date);
+            cell.setCellStyle(styles.date);
+        } else if (value instanceof Date date) {
+            cell.setCellValue(date);
+            cell.setCellStyle(styles.dateTime);
+        } else {
+            cell.setCellValue(value.toString());
+        }
+    }
+
+    /**
+     * Whether a number is written as a numeric cell, without losing a digit to the 15 significant digits
+     * Excel keeps.
+     *
+     * @param number The number.
+     * @return false if the number is written as text.
+     */
+    static boolean isNumeric(Number number) {
+        if (number instanceof Integer || number instanceof Short || number instanceof Byte) {
+            return true;
+        }
+        if (number instanceof Long l && l > -1_000_000_000_000_000L && l < 1_000_000_000_000_000L) {
+            return true;
+        }
+        BigDecimal decimal = number instanceof BigDecimal d ? d
+                : number instanceof BigInteger i ? new BigDecimal(i)
+                : number instanceof Long l ? BigDecimal.valueOf(l) : null;
+        double value = number.doubleValue();
+        if (decimal == null || decimal.signum() == 0) {
+            return Double.isFinite(value);
+        }
+        // 超出 double 范围的数会变成无穷或 0
+        return decimal.stripTrailingZeros().precision() <= MAX_DIGITS && Double.isFinite(value) && value != 0;
+    }
+
+    /**
+     * The text of a number written as text, without exponent for decimals.
+     *
+     * @param number The number.
+     * @return The text.
+     */
+    static String toText(Number number) {
+        return number instanceof BigDecimal decimal ? decimal.toPlainString() : number.toString();
+    }
+
+    /**
+     * Fails if a sheet has no room for another row.
+     *
+     * @param rowNum    The zero based number of the next row.
+     * @param sheetName The name of the sheet.
+     */
+    static void checkRowLimit(int rowNum, String sheetName) {
+        if (rowNum >= MAX_ROWS) {
+            throw new IllegalStateException("Too many rows for sheet '" + sheetName + "', a sheet holds at most "
+                    + (MAX_ROWS - 1) + " rows besides the header");
+        }
+    }
+
+    private static List<Column> resolveColumns(Class<?> clazz) {
+        Deque<Class<?>> hierarchy = new ArrayDeque<>();
+        for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()) {
+            hierarchy.push(current);
+        }
+
+        // 父类字段在前；有注解的类只导出注解字段
+        List<Column> annotated = new ArrayList<>();
+        List<Column> all = new ArrayList<>();
+        for (Class<?> current : hierarchy) {
+            for (Field field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                Function<Object, Object> getter = PropertyAccessors.getter(clazz, field.getName());
+                if (getter == null) {
+                    continue;
+                }
+                ExcelColumn excelColumn = field.getAnnotation(ExcelColumn.class);
+                if (excelColumn != null) {
+                    annotated.add(new Column(excelColumn.value(), getter));
+                }
+                all.add(new Column(field.getName(), getter));
+            }
+        }
+        return List.copyOf(annotated.isEmpty() ? all : annotated);
+    }
+
+    /**
+     * An exported column.
+     *
+     * @param header The header name.
+     * @param getter The property getter.
+     */
+    private record Column(String header, Function<Object, Object> getter) {
+    }
+
+    /**
+     * Cell styles created once per workbook and shared by all cells.
+     */
+    private static final class CellStyles {
+
+        private final CellStyle header;
+        private final CellStyle date;
+        private final CellStyle dateTime;
+
+        private CellStyles(Workbook workbook) {
+            DataFormat format = workbook.createDataFormat();
+
+            Font font = workbook.createFont();
+            font.setBold(true);
+            this.header = workbook.createCellStyle();
+            this.header.setFont(font);
+
+            this.date = workbook.createCellStyle();
+            this.date.setDataFormat(format.getFormat("yyyy-mm-dd"));
+
+            this.dateTime = workbook.createCellStyle();
+            this.dateTime.setDataFormat(format.getFormat("yyyy-mm-dd hh:mm:ss"));
+        }
+    }
+}
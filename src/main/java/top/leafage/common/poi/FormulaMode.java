@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi;
+
+/**
+ * How {@link ExcelReader} reads formula cells.
+ *
+ * @author wq li
+ * @since 0.4.0
+ */
+public enum FormulaMode {
+
+    /**
+     * The formula text, e.g. {@code SUM(A1:A3)}.
+     */
+    FORMULA,
+
+    /**
+     * The result cached in the file when it was last saved, free to read. Formula cells without a cached
+     * result are blank.
+     */
+    CACHED,
+
+    /**
+     * The cached result, formula cells without one are evaluated. The workbook is only loaded for evaluation
+     * when such a cell is met, and every evaluated cell is cached by the evaluator.
+     */
+    EVALUATE
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.IOException;
+
+/**
+ * Evaluates formula cells for the streaming parser, which has no workbook model.
+ * <p>
+ * The workbook is loaded from the package on the first evaluation only, files saved by Excel carry a cached
+ * result for every formula and never pay for it. One evaluator serves all sheets and caches the evaluated
+ * cells, calls are serialized since the evaluator is not thread-safe.
+ *
+ * @author wq li
+ * @since 0.4.0
+ */
+final class LazyFormulaEvaluator {
+
+    private final OPCPackage pkg;
+    private Workbook workbook;
+    private FormulaEvaluator evaluator;
+
+    LazyFormulaEvaluator(OPCPackage pkg) {
+        this.pkg = pkg;
+    }
+
+    /**
+     * Evaluates a formula cell.
+     *
+     * @param sheetName The sheet name.
+     * @param rowNum    The zero based row number.
+     * @param column    The zero based column index.
+     * @return The result, or null if there is no such cell.
+     * @throws IOException If the workbook can not be loaded.
+     */
+    synchronized CellValue evaluate(String sheetName, int rowNum, int column) throws IOException {
+        if (evaluator == null) {
+            // package 由调用方释放，这里不关闭 workbook
+            workbook = new XSSFWorkbook(pkg);
+            evaluator = workbook.getCreationHelper().createFormulaEvaluator();
+        }
+        Sheet sheet = workbook.getSheet(sheetName);
+        Row row = sheet == null ? null : sheet.getRow(rowNum);
+        Cell cell = row == null ? null : row.getCell(column);
+        return cell == null ? null : evaluator.evaluate(cell);
+    }
+}
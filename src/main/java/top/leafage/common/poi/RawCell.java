@@ -0,0 +1,331 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+
+import java.util.function.IntFunction;
+
+/**
+ * A cell as read from the sheet, before it is decoded to a property type.
+ * <p>
+ * One instance is reused for every cell of a sheet, loaded from the xml of the streaming parser, from a
+ * usermodel {@link Cell} or from a csv field. Text is only materialized when a decoder asks for it, shared
+ * strings are looked up by index at that point, numbers are kept as primitives.
+ *
+ * @author wq li
+ * @since 0.4.0
+ */
+final class RawCell {
+
+    /**
+     * The kind of value held by the cell.
+     */
+    enum Kind {
+        BLANK, NUMERIC, STRING, BOOLEAN, ERROR, FORMULA
+    }
+
+    private Kind kind = Kind.BLANK;
+    private boolean date;
+
+    // xml 来源：原始文本，按需解析
+    private CharSequence raw;
+    private IntFunction<String> sharedStrings;
+    private int sharedIndex = -1;
+
+    private String text;
+    private double number;
+    private boolean numberParsed;
+    private boolean bool;
+    private byte error;
+
+    /**
+     * Loads a cell of the sheet xml.
+     *
+     * @param type          The {@code t} attribute, or null for a number.
+     * @param value         The content of the value element, only valid until the next load.
+     * @param formula       The content of the formula element, only valid until the next load.
+     * @param date          Whether the cell style is a date format.
+     * @param sharedStrings Looks up the shared strings of the workbook by index.
+     */
+    void load(String type, CharSequence value, CharSequence formula, boolean date,
+              IntFunction<String> sharedStrings) {
+        reset();
+        this.date = date;
+        if (!formula.isEmpty()) {
+            kind = Kind.FORMULA;
+            raw = formula;
+            return;
+        }
+        if (value.isEmpty()) {
+            return;
+        }
+        raw = value;
+        if (type == null) {
+            kind = Kind.NUMERIC;
+            return;
+        }
+        switch (type) {
+            case "n" -> kind = Kind.NUMERIC;
+            case "s" -> {
+                kind = Kind.STRING;
+                this.sharedStrings = sharedStrings;
+                this.sharedIndex = parseIndex(value);
+            }
+            case "b" -> {
+                kind = Kind.BOOLEAN;
+                bool = value.length() == 1 && value.charAt(0) == '1';
+            }
+            case "e" -> {
+                kind = Kind.ERROR;
+                error = FormulaError.forString(value.toString()).getCode();
+            }
+            default -> kind = Kind.STRING; // inlineStr, str, d
+        }
+    }
+
+    /**
+     * Loads a text field, of a csv file for example. Empty text is blank, anything else a string.
+     *
+     * @param text The field, only valid until the next load.
+     */
+    void load(CharSequence text) {
+        reset();
+        if (text.isEmpty()) {
+            return;
+        }
+        kind = Kind.STRING;
+        raw = text;
+    }
+
+    /**
+     * Loads a usermodel cell, formula cells as their formula text.
+     *
+     * @param cell The cell, or null for a missing cell.
+     */
+    void load(Cell cell) {
+        load(cell, FormulaMode.FORMULA, null);
+    }
+
+    /**
+     * Loads a usermodel cell.
+     *
+     * @param cell      The cell, or null for a missing cell.
+     * @param mode      How formula cells are read.
+     * @param evaluator Evaluates formula cells without a cached result, required for {@link FormulaMode#EVALUATE}.
+     */
+    void load(Cell cell, FormulaMode mode, FormulaEvaluator evaluator) {
+        reset();
+        if (cell == null) {
+            return;
+        }
+        CellType type = cell.getCellType();
+        if (type == CellType.FORMULA) {
+            if (mode == FormulaMode.FORMULA) {
+                kind = Kind.FORMULA;
+                text = cell.getCellFormula();
+                return;
+            }
+            if (mode == FormulaMode.EVALUATE && !hasCachedResult(cell)) {
+                load(evaluator.evaluate(cell), DateUtil.isCellDateFormatted(cell));
+                return;
+            }
+            type = cell.getCachedFormulaResultType();
+        }
+        switch (type) {
+            case STRING -> {
+                kind = Kind.STRING;
+                text = cell.getStringCellValue();
+            }
+            case NUMERIC -> {
+                kind = Kind.NUMERIC;
+                number = cell.getNumericCellValue();
+                numberParsed = true;
+                date = DateUtil.isCellDateFormatted(cell);
+            }
+            case BOOLEAN -> {
+                kind = Kind.BOOLEAN;
+                bool = cell.getBooleanCellValue();
+            }
+            case ERROR -> {
+                kind = Kind.ERROR;
+                error = cell.getErrorCellValue();
+            }
+            default -> {
+                // blank
+            }
+        }
+    }
+
+    /**
+     * Loads an evaluated formula result.
+     *
+     * @param value The result, or null for a missing cell.
+     * @param date  Whether the cell style is a date format.
+     */
+    void load(CellValue value, boolean date) {
+        reset();
+        if (value == null) {
+            return;
+        }
+        this.date = date;
+        switch (value.getCellType()) {
+            case STRING -> {
+                kind = Kind.STRING;
+                text = value.getStringValue();
+            }
+            case NUMERIC -> {
+                kind = Kind.NUMERIC;
+                number = value.getNumberValue();
+                numberParsed = true;
+            }
+            case BOOLEAN -> {
+                kind = Kind.BOOLEAN;
+                bool = value.getBooleanValue();
+            }
+            case ERROR -> {
+                kind = Kind.ERROR;
+                error = value.getErrorValue();
+            }
+            default -> {
+                // blank
+            }
+        }
+    }
+
+    /**
+     * Whether a formula cell carries a result, xlsx files written without calculating formulas have none.
+     *
+     * @param cell The formula cell.
+     * @return true if the cached result can be read.
+     */
+    private static boolean hasCachedResult(Cell cell) {
+        return !(cell instanceof XSSFCell xssfCell) || xssfCell.getCTCell().isSetV();
+    }
+
+    Kind kind() {
+        return kind;
+    }
+
+    /**
+     * Whether the cell is numeric with a date format.
+     *
+     * @return true if the number is a date.
+     */
+    boolean isDate() {
+        return date && kind == Kind.NUMERIC;
+    }
+
+    /**
+     * The text of a string cell, or the formula of a formula cell.
+     *
+     * @return text.
+     */
+    String text() {
+        if (text == null) {
+            if (sharedIndex >= 0) {
+                text = sharedStrings.apply(sharedIndex);
+            } else if (raw != null) {
+                text = raw.toString();
+            }
+        }
+        return text;
+    }
+
+    /**
+     * The value of a numeric cell.
+     *
+     * @return number.
+     */
+    double number() {
+        if (!numberParsed) {
+            number = Double.parseDouble(raw.toString());
+            numberParsed = true;
+        }
+        return number;
+    }
+
+    boolean bool() {
+        return bool;
+    }
+
+    /**
+     * Whether the cell has no value, or only whitespace.
+     *
+     * @return true if the cell is blank.
+     */
+    boolean isBlank() {
+        return switch (kind) {
+            case BLANK -> true;
+            case STRING, FORMULA -> {
+                // 只判断是否为空时不创建字符串
+                if (text != null) {
+                    yield text.isBlank();
+                }
+                if (sharedIndex >= 0) {
+                    yield sharedStrings instanceof CompactSharedStrings compact
+                            ? compact.isBlank(sharedIndex) : text().isBlank();
+                }
+                yield raw == null || isBlank(raw);
+            }
+            default -> false;
+        };
+    }
+
+    /**
+     * The value boxed as the usermodel reader has always returned it: {@code Double} for numbers,
+     * {@code String} for strings, {@code Boolean}, the error code as {@code Byte}, the formula text.
+     *
+     * @return The cell's value as an Object, or null if blank.
+     */
+    Object value() {
+        return switch (kind) {
+            case BLANK -> null;
+            case NUMERIC -> number();
+            case STRING, FORMULA -> text();
+            case BOOLEAN -> bool;
+            case ERROR -> error;
+        };
+    }
+
+    private void reset() {
+        kind = Kind.BLANK;
+        date = false;
+        raw = null;
+        sharedStrings = null;
+        sharedIndex = -1;
+        text = null;
+        numberParsed = false;
+    }
+
+    private static boolean isBlank(CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isWhitespace(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int parseIndex(CharSequence value) {
+        int index = 0;
+        for (int i = 0; i < value.length(); i++) {
+            index = index * 10 + (value.charAt(i) - '0');
+        }
+        return index;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi;
+
+/**
+ * Receives the metrics of a read, set on {@link ReadOptions} to instrument imports.
+ * <p>
+ * Called once per read on the reading thread, after the last row has been handed over. Bridging to a
+ * metrics library is a matter of recording the snapshot, e.g. with Micrometer:
+ * <pre>{@code
+ * ReadOptions.builder().readListener(metrics -> {
+ *     registry.counter("excel.rows").increment(metrics.getRows());
+ *     registry.timer("excel.read").record(metrics.getElapsed());
+ * }).build();
+ * }</pre>
+ *
+ * @author wq li
+ * @since 0.4.0
+ */
+@FunctionalInterface
+public interface ReadListener {
+
+    /**
+     * Called when a read has completed.
+     *
+     * @param metrics The metrics of the read.
+     */
+    void onComplete(ReadMetrics metrics);
+
+    /**
+     * Called when a read has failed, with the metrics up to the failure. A stream cancelled by its
+     * subscriber ends with a {@link java.util.concurrent.CancellationException}.
+     *
+     * @param metrics The metrics of the read so far.
+     * @param error   The failure.
+     */
+    default void onError(ReadMetrics metrics, Throwable error) {
+        // no-op
+    }
+}
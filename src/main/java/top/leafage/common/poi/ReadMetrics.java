@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi;
+
+import java.time.Duration;
+
+/**
+ * A snapshot of the metrics of a read, reported to the {@link ReadListener} of {@link ReadOptions}.
+ *
+ * @author wq li
+ * @since 0.4.0
+ */
+public class ReadMetrics {
+
+    private final long bytesRead;
+    private final long rows;
+    private final long skippedRows;
+    private final long failedRows;
+    private final Duration elapsed;
+    private final Duration parseTime;
+    private final Duration conversionTime;
+    private final int peakBufferedRows;
+
+    /**
+     * <p>Constructor for ReadMetrics.</p>
+     *
+     * @param bytesRead        the bytes read from the input stream, or the size of the file
+     * @param rows             the data rows parsed, blank rows excluded
+     * @param skippedRows      the blank rows skipped
+     * @param failedRows       the rows that could not be mapped
+     * @param elapsed          the wall-clock time of the read
+     * @param parseTime        the time spent parsing and decoding cells, summed over all threads
+     * @param conversionTime   the time spent mapping rows to objects, summed over all threads
+     * @param peakBufferedRows the most rows waiting for conversion at once
+     */
+    public ReadMetrics(long bytesRead, long rows, long skippedRows, long failedRows, Duration elapsed,
+                       Duration parseTime, Duration conversionTime, int peakBufferedRows) {
+        this.bytesRead = bytesRead;
+        this.rows = rows;
+        this.skippedRows = skippedRows;
+        this.failedRows = failedRows;
+        this.elapsed = elapsed;
+        this.parseTime = parseTime;
+        this.conversionTime = conversionTime;
+        this.peakBufferedRows = peakBufferedRows;
+    }
+
+    /**
+     * <p>Getter for the field <code>bytesRead</code>.</p>
+     *
+     * @return the bytes read from the input stream, or the size of the file
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * <p>Getter for the field <code>rows</code>.</p>
+     *
+     * @return the data rows parsed, the header and blank rows excluded
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * <p>Getter for the field <code>skippedRows</code>.</p>
+     *
+     * @return the blank rows skipped
+     */
+    public long getSkippedRows() {
+        return skippedRows;
+    }
+
+    /**
+     * <p>Getter for the field <code>failedRows</code>.</p>
+     *
+     * @return the rows that could not be mapped, reported to the error handler or logged
+     */
+    public long getFailedRows() {
+        return failedRows;
+    }
+
+    /**
+     * <p>Getter for the field <code>elapsed</code>.</p>
+     *
+     * @return the wall-clock time of the read
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * <p>Getter for the field <code>conversionTime</code>.</p>
+     *
+     * @return the time spent mapping rows to objects, summed over all threads
+     */
+    public Duration getConversionTime() {
+        return conversionTime;
+    }
+
+    /**
+     * <p>Getter for the field <code>parseTime</code>.</p>
+     * <p>
+     * Measured around the parser, reading and inflating the file included, minus the time the parser
+     * spends handing rows over: converting them on its own thread, waiting for a full conversion window,
+     * running the consumer or batch sink. Loading a legacy xls workbook before its cells are read is not
+     * included.
+     *
+     * @return the time spent parsing and decoding cells, summed over all threads
+     */
+    public Duration getParseTime() {
+        return parseTime;
+    }
+
+    /**
+     * <p>Getter for the field <code>peakBufferedRows</code>.</p>
+     *
+     * @return the most rows parsed but not yet converted at once, zero without a conversion executor
+     */
+    public int getPeakBufferedRows() {
+        return peakBufferedRows;
+    }
+
+    @Override
+    public String toString() {
+        return "ReadMetrics{bytesRead=" + bytesRead + ", rows=" + rows + ", skippedRows=" + skippedRows
+                + ", failedRows=" + failedRows + ", elapsed=" + elapsed + ", parseTime=" + parseTime
+                + ", conversionTime=" + conversionTime
+                + ", peakBufferedRows=" + peakBufferedRows + "}";
+    }
+}
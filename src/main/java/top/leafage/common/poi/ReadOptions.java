@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Options of {@link ExcelReader}.
+ *
+ * <p>This class is immutable and is constructed using a builder pattern.</p>
+ *
+ * @author wq li
+ * @since 0.4.0
+ */
+public final class ReadOptions {
+
+    /**
+     * The default number of rows converted per task when conversion runs in parallel.
+     */
+    public static final int DEFAULT_CONVERSION_BATCH_SIZE = 256;
+
+    /**
+     * The default number of shared string bytes kept on the heap, 32 MB.
+     */
+    public static final int DEFAULT_SHARED_STRINGS_MEMORY_LIMIT = 32 * 1024 * 1024;
+
+    private static final ReadOptions DEFAULTS = builder().build();
+
+    private final String sheetName;
+    private final String password;
+    private final Consumer<RowError> errorHandler;
+    private final ReadListener readListener;
+    private final Executor conversionExecutor;
+    private final int conversionBatchSize;
+    private final FormulaMode formulaMode;
+    private final boolean compactSharedStrings;
+    private final int sharedStringsMemoryLimit;
+
+    private ReadOptions(ReadOptionsBuilder builder) {
+        this.sheetName = builder.sheetName;
+        this.password = builder.password;
+        this.errorHandler = builder.errorHandler;
+        this.readListener = builder.readListener;
+        this.conversionExecutor = builder.conversionExecutor;
+        this.conversionBatchSize = builder.conversionBatchSize;
+        this.formulaMode = builder.formulaMode;
+        this.compactSharedStrings = builder.compactSharedStrings;
+        this.sharedStringsMemoryLimit = builder.sharedStringsMemoryLimit;
+    }
+
+    /**
+     * The default options: first sheet, no password, failed rows are logged and skipped.
+     *
+     * @return the default options
+     */
+    public static ReadOptions defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * <p>builder.</p>
+     *
+     * @return a {@link ReadOptions.ReadOptionsBuilder} object
+     */
+    public static ReadOptionsBuilder builder() {
+        return new ReadOptionsBuilder();
+    }
+
+    /**
+     * <p>Getter for the field <code>sheetName</code>.</p>
+     *
+     * @return the sheet name, or null for the first sheet
+     */
+    public String getSheetName() {
+        return sheetName;
+    }
+
+    /**
+     * <p>Getter for the field <code>password</code>.</p>
+     *
+     * @return the password, or null
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * <p>Getter for the field <code>errorHandler</code>.</p>
+     *
+     * @return the row error handler, or null to log and skip failed rows
+     */
+    public Consumer<RowError> getErrorHandler() {
+        return errorHandler;
+    }
+
+    /**
+     * <p>Getter for the field <code>readListener</code>.</p>
+     *
+     * @return the listener receiving the metrics of each read, or null
+     */
+    public ReadListener getReadListener() {
+        return readListener;
+    }
+
+    /**
+     * <p>Getter for the field <code>conversionExecutor</code>.</p>
+     *
+     * @return the executor converting rows in parallel, or null to convert on the parser thread
+     */
+    public Executor getConversionExecutor() {
+        return conversionExecutor;
+    }
+
+    /**
+     * <p>Getter for the field <code>conversionBatchSize</code>.</p>
+     *
+     * @return the number of rows converted per task
+     */
+    public int getConversionBatchSize() {
+        return conversionBatchSize;
+    }
+
+    /**
+     * <p>Getter for the field <code>formulaMode</code>.</p>
+     *
+     * @return how formula cells are read
+     */
+    public FormulaMode getFormulaMode() {
+        return formulaMode;
+    }
+
+    /**
+     * <p>Getter for the field <code>compactSharedStrings</code>.</p>
+     *
+     * @return whether the shared strings table is loaded into a compact, deduplicating form
+     */
+    public boolean isCompactSharedStrings() {
+        return compactSharedStrings;
+    }
+
+    /**
+     * <p>Getter for the field <code>sharedStringsMemoryLimit</code>.</p>
+     *
+     * @return the number of shared string bytes kept on the heap
+     */
+    public int getSharedStringsMemoryLimit() {
+        return sharedStringsMemoryLimit;
+    }
+
+    /**
+     * ReadOptions builder
+     */
+    public static final class ReadOptionsBuilder {
+        private String sheetName;
+        private String password;
+        private Consumer<RowError> errorHandler;
+        private ReadListener readListener;
+        private Executor conversionExecutor;
+        private int conversionBatchSize = DEFAULT_CONVERSION_BATCH_SIZE;
+        private FormulaMode formulaMode = FormulaMode.FORMULA;
+        private boolean compactSharedStrings;
+        private int sharedStringsMemoryLimit = DEFAULT_SHARED_STRINGS_MEMORY_LIMIT;
+
+        private ReadOptionsBuilder() {
+        }
+
+        /**
+         * <p>Setter for the field <code>sheetName</code>.</p>
+         *
+         * @param sheetName the name of the sheet to read, null for the first sheet
+         * @return this builder
+         */
+        public ReadOptionsBuilder sheetName(String sheetName) {
+            this.sheetName = sheetName;
+            return this;
+        }
+
+        /**
+         * <p>Setter for the field <code>password</code>.</p>
+         *
+         * @param password the password for protected files
+         * @return this builder
+         */
+        public ReadOptionsBuilder password(String password) {
+            this.password = password;
+            return this;
+        }
+
+        /**
+         * <p>Setter for the field <code>errorHandler</code>.</p>
+         *
+         * @param errorHandler receives the rows that could not be mapped, instead of logging them
+         * @return this builder
+         */
+        public ReadOptionsBuilder errorHandler(Consumer<RowError> errorHandler) {
+            this.errorHandler = errorHandler;
+            return this;
+        }
+
+        /**
+         * <p>Setter for the field <code>readListener</code>.</p>
+         * Reads with the options report bytes read, row counts, parse and conversion time to the listener.
+         *
+         * @param readListener receives the metrics of each read, null to not time reads
+         * @return this builder
+         */
+        public ReadOptionsBuilder readListener(ReadListener readListener) {
+            this.readListener = readListener;
+            return this;
+        }
+
+        /**
+         * <p>Setter for the field <code>conversionExecutor</code>.</p>
+         * Rows parsed by the streaming parser are converted in batches on this executor, in parallel,
+         * and handed to the consumer in row order. Pays off for large sheets mapped to many columns.
+         *
+         * @param conversionExecutor the executor converting rows, null to convert on the parser thread
+         * @return this builder
+         */
+        public ReadOptionsBuilder conversionExecutor(Executor conversionExecutor) {
+            this.conversionExecutor = conversionExecutor;
+            return this;
+        }
+
+        /**
+         * <p>Setter for the field <code>conversionBatchSize</code>.</p>
+         *
+         * @param conversionBatchSize the number of rows converted per task, must be positive
+         * @return this builder
+         */
+        public ReadOptionsBuilder conversionBatchSize(int conversionBatchSize) {
+            if (conversionBatchSize <= 0) {
+                throw new IllegalArgumentException("Conversion batch size must be positive.");
+            }
+            this.conversionBatchSize = conversionBatchSize;
+            return this;
+        }
+
+        /**
+         * <p>Setter for the field <code>formulaMode</code>.</p>
+         *
+         * @param formulaMode how formula cells are read, the formula text by default
+         * @return this builder
+         */
+        public ReadOptionsBuilder formulaMode(FormulaMode formulaMode) {
+            this.formulaMode = Objects.requireNonNull(formulaMode, "formulaMode");
+            return this;
+        }
+
+        /**
+         * <p>Setter for the field <code>compactSharedStrings</code>.</p>
+         * The shared strings table of xlsx files is read once into a single byte arena instead of one
+         * object per entry, one byte per char for Latin-1 text, and repeated strings are handed out as
+         * the same instance. Recommended for large imports with many repeated texts. Only used by the
+         * streaming parser.
+         *
+         * @param compactSharedStrings whether to load the shared strings table into a compact form
+         * @return this builder
+         */
+        public ReadOptionsBuilder compactSharedStrings(boolean compactSharedStrings) {
+            this.compactSharedStrings = compactSharedStrings;
+            return this;
+        }
+
+        /**
+         * <p>Setter for the field <code>sharedStringsMemoryLimit</code>.</p>
+         * A compact shared strings table with more bytes is spilled to a memory-mapped temporary file.
+         *
+         * @param sharedStringsMemoryLimit the number of bytes kept on the heap, not negative
+         * @return this builder
+         */
+        public ReadOptionsBuilder sharedStringsMemoryLimit(int sharedStringsMemoryLimit) {
+            if (sharedStringsMemoryLimit < 0) {
+                throw new IllegalArgumentException("Shared strings memory limit must not be negative.");
+            }
+            this.sharedStringsMemoryLimit = sharedStringsMemoryLimit;
+            return this;
+        }
+
+        /**
+         * <p>build.</p>
+         *
+         * @return read options
+         */
+        public ReadOptions build() {
+            return new ReadOptions(this);
+        }
+    }
+}
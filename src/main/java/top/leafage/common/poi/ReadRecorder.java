@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+/**
+ * Collects the metrics of a read for the {@link ReadListener} of the options.
+ * <p>
+ * Counters are plain fields updated by the thread driving the parser. Parallel sheets record into
+ * forks that are merged when done. Without a listener nothing is timed, only counters are bumped.
+ * <p>
+ * The parse time is timed around the parser on its own thread, and the time the parser spends in the
+ * listener handing a row over is taken off again, so conversion and the consumer are never counted
+ * as parsing.
+ *
+ * @author wq li
+ * @since 0.4.0
+ */
+final class ReadRecorder {
+
+    private final ReadListener listener;
+    private final long start = System.nanoTime();
+    private CountingInputStream counter;
+    private long bytesRead;
+    private boolean reported;
+
+    long rows;
+    long skippedRows;
+    long failedRows;
+    long parseNanos;
+    long conversionNanos;
+    int peakBufferedRows;
+
+    private ReadRecorder(ReadListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Creates the recorder of a read.
+     *
+     * @param options The read options, may be null.
+     * @return The recorder, reporting to the listener of the options if any.
+     */
+    static ReadRecorder of(ReadOptions options) {
+        return new ReadRecorder(options == null ? null : options.getReadListener());
+    }
+
+    /**
+     * Creates a recorder for a part of the read running on another thread, see {@link #merge(ReadRecorder)}.
+     *
+     * @return The fork, never reporting itself.
+     */
+    ReadRecorder fork() {
+        return new ReadRecorder(listener);
+    }
+
+    /**
+     * Adds the counters of a fork.
+     *
+     * @param fork The fork, done recording.
+     */
+    synchronized void merge(ReadRecorder fork) {
+        rows += fork.rows;
+        skippedRows += fork.skippedRows;
+        failedRows += fork.failedRows;
+        parseNanos += fork.parseNanos;
+        conversionNanos += fork.conversionNanos;
+        peakBufferedRows = Math.max(peakBufferedRows, fork.peakBufferedRows);
+    }
+
+    /**
+     * Counts the bytes read from the input stream.
+     *
+     * @param inputStream The input stream of the read.
+     * @return The stream to read from instead.
+     */
+    InputStream count(InputStream inputStream) {
+        if (listener == null) {
+            return inputStream;
+        }
+        counter = new CountingInputStream(inputStream);
+        return counter;
+    }
+
+    /**
+     * Sets the bytes read, for files opened directly.
+     *
+     * @param bytes The file size.
+     */
+    void bytesRead(long bytes) {
+        bytesRead = bytes;
+    }
+
+    /**
+     * Whether conversions are timed, only when there is a listener.
+     *
+     * @return true if timed.
+     */
+    boolean isTimed() {
+        return listener != null;
+    }
+
+    /**
+     * Marks the start of parsing, on the thread running the parser.
+     *
+     * @return The start time, 0 if not timed.
+     */
+    long startParse() {
+        return listener == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Records the time spent parsing.
+     *
+     * @param start The start time returned by {@link #startParse()}.
+     */
+    void endParse(long start) {
+        if (listener != null) {
+            parseNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Marks the start of handing a row over while parsing.
+     *
+     * @return The start time, 0 if not timed.
+     */
+    long startHandoff() {
+        return listener == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Takes the time spent handing a row over off the parse time.
+     *
+     * @param start The start time returned by {@link #startHandoff()}.
+     */
+    void endHandoff(long start) {
+        if (listener != null) {
+            parseNanos -= System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Marks the start of a conversion.
+     *
+     * @return The start time, 0 if not timed.
+     */
+    long startConversion() {
+        return listener == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Records a conversion.
+     *
+     * @param start The start time returned by {@link #startConversion()}.
+     */
+    void endConversion(long start) {
+        if (listener != null) {
+            conversionNanos += System.nanoTime() - start;
+        }
+    }
+
+    void buffered(int bufferedRows) {
+        if (bufferedRows > peakBufferedRows) {
+            peakBufferedRows = bufferedRows;
+        }
+    }
+
+    /**
+     * Reports the read as completed, unless it was already reported.
+     */
+    void complete() {
+        if (listener != null && report()) {
+            listener.onComplete(snapshot());
+        }
+    }
+
+    /**
+     * Reports the read as failed, unless it was already reported. Parallel parts failing together report
+     * the first error only.
+     *
+     * @param error The error ending the read.
+     */
+    void fail(Throwable error) {
+        if (listener != null && report()) {
+            listener.onError(snapshot(), error);
+        }
+    }
+
+    private synchronized boolean report() {
+        if (reported) {
+            return false;
+        }
+        reported = true;
+        return true;
+    }
+
+    private synchronized ReadMetrics snapshot() {
+        long bytes = counter == null ? bytesRead : counter.count;
+        return new ReadMetrics(bytes, rows, skippedRows, failedRows, Duration.ofNanos(System.nanoTime() - start),
+                Duration.ofNanos(Math.max(0, parseNanos)), Duration.ofNanos(conversionNanos), peakBufferedRows);
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            // 不跟踪 reset 回退的字节
+            return false;
+        }
+    }
+}
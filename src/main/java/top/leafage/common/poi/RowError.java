@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi;
+
+/**
+ * A row that could not be mapped, reported to the error handler of {@link ReadOptions}.
+ *
+ * @author wq li
+ * @since 0.4.0
+ */
+public class RowError {
+
+    private final int rowNum;
+    private final String column;
+    private final String message;
+    private final Throwable cause;
+
+    /**
+     * <p>Constructor for RowError.</p>
+     *
+     * @param rowNum  the 1-based row number, as shown in Excel
+     * @param column  the header of the failed column, or null if unknown
+     * @param message the reason
+     * @param cause   the exception, or null
+     */
+    public RowError(int rowNum, String column, String message, Throwable cause) {
+        this.rowNum = rowNum;
+        this.column = column;
+        this.message = message;
+        this.cause = cause;
+    }
+
+    /**
+     * <p>Getter for the field <code>rowNum</code>.</p>
+     *
+     * @return the 1-based row number
+     */
+    public int getRowNum() {
+        return rowNum;
+    }
+
+    /**
+     * <p>Getter for the field <code>column</code>.</p>
+     *
+     * @return the header of the failed column, or null if unknown
+     */
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * <p>Getter for the field <code>message</code>.</p>
+     *
+     * @return the reason
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * <p>Getter for the field <code>cause</code>.</p>
+     *
+     * @return the exception, or null
+     */
+    public Throwable getCause() {
+        return cause;
+    }
+
+    @Override
+    public String toString() {
+        return "RowError{rowNum=" + rowNum + ", column='" + column + "', message='" + message + "'}";
+    }
+}
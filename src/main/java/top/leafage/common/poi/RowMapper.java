@@ -0,0 +1,352 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.springframework.core.convert.support.DefaultConversionService;
+import top.leafage.common.beans.PropertyAccessors;
+
+import java.io.Serial;
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Maps the cells of a row to an instance of the target class.
+ * <p>
+ * A mapper is compiled once per class and header row: every mapped column is resolved to its setter
+ * or constructor parameter and its {@link CellDecoder} up front, so mapping a row is only indexed cell reads
+ * and direct accessor calls. The {@link ExcelColumn} rules of a column are checked on its converted value
+ * in the same pass, see {@link ColumnValidator}.
+ * Records and classes bound through their constructor are supported as well.
+ *
+ * @param <T> The type to map the Excel rows to
+ * @author wq li
+ * @since 0.4.0
+ */
+final class RowMapper<T> {
+
+    /**
+     * 每个类缓存的 header 组合上限，避免异常输入撑爆缓存
+     */
+    private static final int MAX_CACHED_HEADERS = 64;
+
+    private static final Logger logger = StatusLogger.getLogger();
+
+    private static final ClassValue<ClassMapping> MAPPINGS = new ClassValue<>() {
+        @Override
+        protected ClassMapping computeValue(Class<?> type) {
+            return new ClassMapping(type);
+        }
+    };
+
+    private final PropertyAccessors.Creator<T> creator;
+    private final int[] columns;
+    private final String[] headers;
+    private final int[] arguments;
+    private final BiConsumer<Object, Object>[] setters;
+    private final Class<?>[] types;
+    private final CellDecoder[] decoders;
+    private final ColumnValidator[] validators;
+    private final String missingRequired;
+    private final int[] slots;
+
+    private RowMapper(PropertyAccessors.Creator<T> creator, int[] columns, String[] headers, int[] arguments,
+                      BiConsumer<Object, Object>[] setters, Class<?>[] types, ColumnValidator[] validators,
+                      String missingRequired) {
+        this.creator = creator;
+        this.columns = columns;
+        this.headers = headers;
+        this.arguments = arguments;
+        this.setters = setters;
+        this.types = types;
+        this.validators = validators;
+        this.missingRequired = missingRequired;
+        this.decoders = new CellDecoder[types.length];
+        for (int i = 0; i < types.length; i++) {
+            decoders[i] = CellDecoder.of(types[i]);
+        }
+        int lastColumn = -1;
+        for (int column : columns) {
+            lastColumn = Math.max(lastColumn, column);
+        }
+        this.slots = new int[lastColumn + 1];
+        Arrays.fill(slots, -1);
+        for (int i = 0; i < columns.length; i++) {
+            slots[columns[i]] = i;
+        }
+    }
+
+    /**
+     * Returns the mapper of the class for the given header row, compiling it on first use.
+     *
+     * @param clazz   The class to map rows to.
+     * @param headers The header names, indexed by column.
+     * @param <T>     The type of objects to map the Excel data to.
+     * @return The row mapper.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> RowMapper<T> of(Class<T> clazz, List<String> headers) {
+        ClassMapping mapping = MAPPINGS.get(clazz);
+        RowMapper<?> mapper = mapping.mappers.get(headers);
+        if (mapper == null) {
+            mapper = compile(clazz, mapping, headers);
+            if (mapping.mappers.size() < MAX_CACHED_HEADERS) {
+                mapping.mappers.putIfAbsent(List.copyOf(headers), mapper);
+            }
+        }
+        return (RowMapper<T>) mapper;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> RowMapper<T> compile(Class<T> clazz, ClassMapping mapping, List<String> headers) {
+        // 同一个属性对应多列时，以最后一列为准
+        Map<String, Integer> properties = new LinkedHashMap<>();
+        for (int i = 0; i < headers.size(); i++) {
+            String property = mapping.properties.get(headers.get(i));
+            if (property != null) {
+                properties.remove(property);
+                properties.put(property, i);
+            }
+        }
+
+        int size = properties.size();
+        if (size == 0 && headers.stream().anyMatch(header -> !header.isBlank())) {
+            // 编译结果按 header 缓存，同样的表头只提示一次
+            logger.warn("No column of the header {} is mapped to {}, every row will be skipped", headers,
+                    clazz.getName());
+        }
+        int[] columns = new int[size];
+        String[] names = new String[size];
+        int[] arguments = new int[size];
+        BiConsumer<Object, Object>[] setters = (BiConsumer<Object, Object>[]) new BiConsumer<?, ?>[size];
+        Class<?>[] types = new Class<?>[size];
+        ColumnValidator[] validators = new ColumnValidator[size];
+        int slot = 0;
+        for (Map.Entry<String, Integer> entry : properties.entrySet()) {
+            String property = entry.getKey();
+            columns[slot] = entry.getValue();
+            names[slot] = headers.get(columns[slot]);
+            arguments[slot] = mapping.arguments.getOrDefault(property, -1);
+            setters[slot] = arguments[slot] < 0 ? PropertyAccessors.setter(clazz, property) : null;
+            types[slot] = arguments[slot] < 0
+                    ? PropertyAccessors.propertyType(clazz, property)
+                    : mapping.creator.parameterTypes()[arguments[slot]];
+            validators[slot] = mapping.validators.get(property);
+            slot++;
+        }
+        // 必填列不在表头中时，每一行都按缺少该列报错
+        String missingRequired = null;
+        for (Map.Entry<String, String> required : mapping.required.entrySet()) {
+            if (!properties.containsKey(required.getKey())) {
+                missingRequired = required.getValue();
+                break;
+            }
+        }
+        return new RowMapper<>((PropertyAccessors.Creator<T>) mapping.creator, columns, names, arguments, setters, types,
+                validators, missingRequired);
+    }
+
+    /**
+     * The number of mapped columns.
+     *
+     * @return size.
+     */
+    int size() {
+        return columns.length;
+    }
+
+    /**
+     * The column index of a slot.
+     *
+     * @param slot The slot, from 0 to {@link #size()}.
+     * @return The column index.
+     */
+    int column(int slot) {
+        return columns[slot];
+    }
+
+    /**
+     * The slot of a column.
+     *
+     * @param column The column index.
+     * @return The slot, or -1 if the column is not mapped.
+     */
+    int slot(int column) {
+        return column < slots.length ? slots[column] : -1;
+    }
+
+    /**
+     * Decodes a cell with the decoder of its slot.
+     * <p>
+     * This never throws: a cell that can not be decoded yields a {@link MappingException}, which {@link #map}
+     * throws when the row is mapped, so the failure is reported in row order like a conversion failure.
+     *
+     * @param slot The slot.
+     * @param cell The cell, only valid during the call.
+     * @return The decoded value, or the failure.
+     */
+    Object decode(int slot, RawCell cell) {
+        try {
+            return decoders[slot].decode(cell);
+        } catch (RuntimeException e) {
+            return new MappingException(headers[slot], e);
+        }
+    }
+
+    /**
+     * Creates an instance from the values of the mapped columns.
+     * A {@code null} value leaves the property untouched.
+     *
+     * @param values The decoded cell values, indexed by slot.
+     * @return An instance of the class populated with the row data.
+     * @throws MappingException if a value can not be converted to its property type or breaks a column rule,
+     *                          or a required column is missing from the header.
+     */
+    T map(Object[] values) {
+        if (missingRequired != null) {
+            throw new MappingException(missingRequired, "is required but missing from the header");
+        }
+        T instance;
+        if (creator.parameterCount() == 0) {
+            instance = creator.create();
+        } else {
+            Object[] args = new Object[creator.parameterCount()];
+            for (int i = 0; i < arguments.length; i++) {
+                if (arguments[i] >= 0) {
+                    args[arguments[i]] = value(i, values[i]);
+                }
+            }
+            instance = creator.create(args);
+        }
+        for (int i = 0; i < setters.length; i++) {
+            if (setters[i] != null) {
+                Object value = value(i, values[i]);
+                if (value != null) {
+                    setters[i].accept(instance, value);
+                }
+            }
+        }
+        return instance;
+    }
+
+    private Object value(int slot, Object value) {
+        Object converted = value == null ? null : convert(slot, value);
+        ColumnValidator validator = validators[slot];
+        if (validator != null) {
+            String reason = validator.validate(converted);
+            if (reason != null) {
+                throw new MappingException(headers[slot], reason);
+            }
+        }
+        return converted;
+    }
+
+    private Object convert(int slot, Object value) {
+        if (value instanceof MappingException e) {
+            throw e;
+        }
+        if (!decoders[slot].needsConversion()) {
+            return value;
+        }
+        try {
+            return DefaultConversionService.getSharedInstance().convert(value, types[slot]);
+        } catch (RuntimeException e) {
+            throw new MappingException(headers[slot], e);
+        }
+    }
+
+    /**
+     * Thrown when a cell value can not be converted to its property type or breaks a column rule.
+     */
+    static final class MappingException extends RuntimeException {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final String column;
+
+        MappingException(String column, Throwable cause) {
+            super("Failed to convert column: " + column, cause);
+            this.column = column;
+        }
+
+        /**
+         * A rule violation, reported without a stack trace: invalid rows are expected input, not bugs.
+         *
+         * @param column The header of the column.
+         * @param reason The broken rule.
+         */
+        MappingException(String column, String reason) {
+            super(column + " " + reason, null, false, false);
+            this.column = column;
+        }
+
+        String getColumn() {
+            return column;
+        }
+    }
+
+    /**
+     * Header name to property of a class, resolved once per class.
+     * A property is mapped if it is a constructor parameter or has a setter.
+     */
+    private static final class ClassMapping {
+
+        private final PropertyAccessors.Creator<?> creator;
+        private final Map<String, Integer> arguments = new HashMap<>();
+        private final Map<String, String> properties = new HashMap<>();
+        private final Map<String, ColumnValidator> validators = new HashMap<>();
+        // 必填属性 -> 列名，按声明顺序
+        private final Map<String, String> required = new LinkedHashMap<>();
+        private final ConcurrentMap<List<String>, RowMapper<?>> mappers = new ConcurrentHashMap<>();
+
+        private ClassMapping(Class<?> clazz) {
+            this.creator = PropertyAccessors.creator(clazz);
+            String[] parameterNames = creator.parameterNames();
+            for (int i = 0; i < parameterNames.length; i++) {
+                arguments.put(parameterNames[i], i);
+            }
+
+            Class<?> currentClass = clazz;
+            while (currentClass != null && currentClass != Object.class) {
+                for (Field field : currentClass.getDeclaredFields()) {
+                    String name = field.getName();
+                    if (!arguments.containsKey(name) && PropertyAccessors.setter(clazz, name) == null) {
+                        continue;
+                    }
+                    // 字段名和注解的显示名称都可以匹配 header，先声明的字段优先
+                    properties.putIfAbsent(name, name);
+                    ExcelColumn excelColumn = field.getAnnotation(ExcelColumn.class);
+                    if (excelColumn != null) {
+                        properties.putIfAbsent(excelColumn.value(), name);
+                        ColumnValidator validator = ColumnValidator.of(excelColumn);
+                        if (validator != null) {
+                            validators.putIfAbsent(name, validator);
+                        }
+                        if (excelColumn.required()) {
+                            required.putIfAbsent(name, excelColumn.value());
+                        }
+                    }
+                }
+                currentClass = currentClass.getSuperclass();
+            }
+        }
+    }
+}
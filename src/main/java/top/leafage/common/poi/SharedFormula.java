@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.util.CellReference;
+
+/**
+ * A shared formula of the sheet xml, as written by Excel for a filled range: the master cell holds the
+ * formula text and the range, the other cells of the range only an empty formula element pointing to it.
+ * <p>
+ * The formula of a dependent cell is the master formula with every relative reference moved by the offset
+ * of the cell from the top left of the range, as the usermodel renders it. Cell references, column ranges
+ * ({@code A:B}) and row ranges ({@code 1:2}) are moved, {@code $} anchored parts are not; string literals,
+ * quoted sheet names and bracketed external or structured references are kept as they are. A reference
+ * moved off the sheet becomes {@code #REF!}.
+ *
+ * @param formula     The formula text of the master cell.
+ * @param firstRow    The zero based first row of the range.
+ * @param firstColumn The zero based first column of the range.
+ * @author wq li
+ * @since 0.4.0
+ */
+record SharedFormula(String formula, int firstRow, int firstColumn) {
+
+    private static final int MAX_ROW = SpreadsheetVersion.EXCEL2007.getLastRowIndex();
+    private static final int MAX_COLUMN = SpreadsheetVersion.EXCEL2007.getLastColumnIndex();
+
+    /**
+     * Creates the shared formula of a master cell.
+     *
+     * @param formula The formula text of the master cell.
+     * @param ref     The {@code ref} attribute, the range sharing the formula, e.g. {@code B2:B10}.
+     * @return The shared formula.
+     */
+    static SharedFormula of(String formula, String ref) {
+        int colon = ref.indexOf(':');
+        CellReference first = new CellReference(colon < 0 ? ref : ref.substring(0, colon));
+        return new SharedFormula(formula, first.getRow(), first.getCol());
+    }
+
+    /**
+     * The formula of a cell of the range.
+     *
+     * @param rowNum The zero based row number of the cell.
+     * @param column The zero based column index of the cell.
+     * @return The formula text.
+     */
+    String at(int rowNum, int column) {
+        int rows = rowNum - firstRow;
+        int columns = column - firstColumn;
+        if (rows == 0 && columns == 0) {
+            return formula;
+        }
+        StringBuilder out = new StringBuilder(formula.length() + 8);
+        int length = formula.length();
+        int i = 0;
+        while (i < length) {
+            char c = formula.charAt(i);
+            if (c == '"' || c == '\'') {
+                i = copyQuoted(out, i, c);
+            } else if (c == '[') {
+                i = copyBracketed(out, i);
+            } else if (isTokenChar(c)) {
+                int end = i;
+                while (end < length && isTokenChar(formula.charAt(end))) {
+                    end++;
+                }
+                i = shiftToken(out, i, end, rows, columns);
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return out.toString();
+    }
+
+    private int shiftToken(StringBuilder out, int start, int end, int rows, int columns) {
+        String token = formula.substring(start, end);
+        char next = end < formula.length() ? formula.charAt(end) : 0;
+        int split = letters(token);
+        if (split > 0 && split < token.length() && digits(token, split) && next != '(' && next != '!') {
+            // 单元格引用，如 A1、$A$1
+            String col = column(token.substring(0, split), columns);
+            String row = row(token.substring(split), rows);
+            out.append(col == null || row == null ? "#REF!" : col + row);
+            return end;
+        }
+        if (next == ':' && (split == token.length() || digits(token, 0))) {
+            // 整列 A:B 或整行 1:2，冒号后面是同类的引用
+            int otherEnd = end + 1;
+            while (otherEnd < formula.length() && isTokenChar(formula.charAt(otherEnd))) {
+                otherEnd++;
+            }
+            String other = formula.substring(end + 1, otherEnd);
+            String from = null;
+            String to = null;
+            if (split == token.length() && split > 0 && !other.isEmpty() && letters(other) == other.length()) {
+                from = column(token, columns);
+                to = column(other, columns);
+            } else if (split == 0 && digits(other, 0)) {
+                from = row(token, rows);
+                to = row(other, rows);
+            } else {
+                out.append(token);
+                return end;
+            }
+            out.append(from == null || to == null ? "#REF!" : from + ':' + to);
+            return otherEnd;
+        }
+        out.append(token);
+        return end;
+    }
+
+    /**
+     * The length of the column part of a token: an optional {@code $} and one to three capital letters.
+     *
+     * @param token The token.
+     * @return The length, 0 if the token does not start with a column.
+     */
+    private static int letters(String token) {
+        int i = !token.isEmpty() && token.charAt(0) == '$' ? 1 : 0;
+        int start = i;
+        while (i < token.length() && token.charAt(i) >= 'A' && token.charAt(i) <= 'Z') {
+            i++;
+        }
+        return i == start || i - start > 3 ? 0 : i;
+    }
+
+    /**
+     * Whether the rest of a token is a row: an optional {@code $} and digits.
+     */
+    private static boolean digits(String token, int from) {
+        int i = from < token.length() && token.charAt(from) == '$' ? from + 1 : from;
+        if (i == token.length()) {
+            return false;
+        }
+        for (; i < token.length(); i++) {
+            if (token.charAt(i) < '0' || token.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Moves the column part of a reference.
+     *
+     * @return The moved column, null if it is off the sheet.
+     */
+    private static String column(String part, int columns) {
+        if (part.charAt(0) == '$') {
+            return part;
+        }
+        int column = StreamingSheetHandler.columnIndex(part) + columns;
+        return column < 0 || column > MAX_COLUMN ? null : CellReference.convertNumToColString(column);
+    }
+
+    /**
+     * Moves the row part of a reference.
+     *
+     * @return The moved row, null if it is off the sheet.
+     */
+    private static String row(String part, int rows) {
+        if (part.charAt(0) == '$') {
+            return part;
+        }
+        if (part.length() > 9) {
+            return null;
+        }
+        int row = Integer.parseInt(part) - 1 + rows;
+        return row < 0 || row > MAX_ROW ? null : String.valueOf(row + 1);
+    }
+
+    private int copyQuoted(StringBuilder out, int start, char quote) {
+        int i = start + 1;
+        while (i < formula.length()) {
+            if (formula.charAt(i) == quote) {
+                // 两个引号是转义
+                if (i + 1 < formula.length() && formula.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                i++;
+                break;
+            }
+            i++;
+        }
+        out.append(formula, start, i);
+        return i;
+    }
+
+    private int copyBracketed(StringBuilder out, int start) {
+        int depth = 0;
+        int i = start;
+        while (i < formula.length()) {
+            char c = formula.charAt(i++);
+            if (c == '[') {
+                depth++;
+            } else if (c == ']' && --depth == 0) {
+                break;
+            }
+        }
+        out.append(formula, start, i);
+        return i;
+    }
+
+    private static boolean isTokenChar(char c) {
+        return c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c >= '0' && c <= '9'
+                || c == '$' || c == '_' || c == '.' || c == '\\';
+    }
+}
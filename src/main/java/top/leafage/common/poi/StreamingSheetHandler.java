@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi;
+
+import org.apache.poi.ss.usermodel.CellValue;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * SAX handler for the sheet xml part of a xlsx file.
+ * Every cell is loaded into a reused {@link RawCell} and handed to a {@link RowListener} as it is parsed,
+ * so only the current cell is kept in memory and nothing is decoded the listener does not ask for.
+ * Cells of columns the listener does not accept are skipped as soon as their reference is read,
+ * their content is not even collected, except the formula of a shared formula range.
+ * <p>
+ * In {@link FormulaMode#FORMULA} the cells of a shared formula range other than its master only carry an
+ * empty formula element, their formula is the master formula moved to the cell, see {@link SharedFormula}.
+ *
+ * @author wq li
+ * @since 0.4.0
+ */
+class StreamingSheetHandler extends DefaultHandler {
+
+    private final IntFunction<String> sharedStrings;
+    private final boolean[] dateStyles;
+    private final FormulaMode formulaMode;
+    private final FormulaEvaluation formulaEvaluation;
+    private final RowListener listener;
+
+    private final RawCell cell = new RawCell();
+    private final StringBuilder value = new StringBuilder();
+    private final StringBuilder formula = new StringBuilder();
+    private final Map<String, SharedFormula> sharedFormulas = new HashMap<>();
+
+    private int rowNum = -1;
+    private int column = -1;
+    private String cellType;
+    private int style;
+    private boolean hasFormula;
+    private String sharedIndex;
+    private String sharedRef;
+    private boolean skipped;
+    private boolean inValue;
+    private boolean inFormula;
+    private boolean inInlineString;
+
+    /**
+     * Creates a handler for a sheet of the workbook.
+     *
+     * @param sharedStrings Looks up the shared strings of the workbook by index.
+     * @param dateStyles        Whether each cell style, by index, is a date format.
+     * @param formulaMode       How formula cells are read.
+     * @param formulaEvaluation Evaluates formula cells without a cached result, required for
+     *                          {@link FormulaMode#EVALUATE}.
+     * @param listener          Receives the parsed cells.
+     */
+    StreamingSheetHandler(IntFunction<String> sharedStrings, boolean[] dateStyles, FormulaMode formulaMode,
+                          FormulaEvaluation formulaEvaluation, RowListener listener) {
+        this.sharedStrings = sharedStrings;
+        this.dateStyles = dateStyles;
+        this.formulaMode = formulaMode;
+        this.formulaEvaluation = formulaEvaluation;
+        this.listener = listener;
+    }
+
+    /**
+     * Resolves which cell styles of a workbook are date formats.
+     *
+     * @param styles The styles table, or null if the workbook has none.
+     * @return Whether each cell style, by index, is a date format.
+     */
+    static boolean[] dateStyles(StylesTable styles) {
+        if (styles == null) {
+            return new boolean[0];
+        }
+        boolean[] dateStyles = new boolean[styles.getNumCellStyles()];
+        for (int i = 0; i < dateStyles.length; i++) {
+            XSSFCellStyle cellStyle = styles.getStyleAt(i);
+            dateStyles[i] = cellStyle != null
+                    && DateUtil.isADateFormat(cellStyle.getDataFormat(), cellStyle.getDataFormatString());
+        }
+        return dateStyles;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+        if (skipped) {
+            // 共享公式的主单元格即使跳过也要记下，同一范围内可能有映射的列
+            if ("f".equals(localName)) {
+                startFormula(attributes);
+            }
+            return;
+        }
+
+        switch (localName) {
+            case "row" -> {
+                String r = attributes.getValue("r");
+                rowNum = r == null ? rowNum + 1 : Integer.parseInt(r) - 1;
+                column = -1;
+                listener.startRow(rowNum);
+            }
+            case "c" -> {
+                String r = attributes.getValue("r");
+                column = r == null ? column + 1 : columnIndex(r);
+                // 未映射的列直接跳过，不收集内容
+                skipped = !listener.accepts(column);
+                if (skipped) return;
+
+                cellType = attributes.getValue("t");
+                String s = attributes.getValue("s");
+                style = s == null ? 0 : Integer.parseInt(s);
+                hasFormula = false;
+                value.setLength(0);
+                formula.setLength(0);
+            }
+            case "v" -> inValue = true;
+            case "f" -> startFormula(attributes);
+            case "is" -> inInlineString = true;
+            case "t" -> inValue = inInlineString;
+            default -> {
+                // ignore
+            }
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+        if (skipped) {
+            if ("f".equals(localName)) {
+                endFormula();
+            }
+            // 跳过的单元格到 c 结束为止
+            skipped = !"c".equals(localName);
+            return;
+        }
+        switch (localName) {
+            case "v", "t" -> inValue = false;
+            case "f" -> endFormula();
+            case "is" -> inInlineString = false;
+            case "c" -> {
+                loadCell();
+                listener.cell(column, cell);
+            }
+            case "row" -> listener.endRow(rowNum);
+            default -> {
+                // ignore
+            }
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (inValue) {
+            value.append(ch, start, length);
+        } else if (inFormula) {
+            formula.append(ch, start, length);
+        }
+    }
+
+    private void startFormula(Attributes attributes) {
+        inFormula = true;
+        hasFormula = true;
+        formula.setLength(0);
+        sharedIndex = null;
+        if (formulaMode == FormulaMode.FORMULA && "shared".equals(attributes.getValue("t"))) {
+            sharedIndex = attributes.getValue("si");
+            sharedRef = attributes.getValue("ref");
+        }
+    }
+
+    private void endFormula() {
+        inFormula = false;
+        if (sharedIndex != null && sharedRef != null && !formula.isEmpty()) {
+            sharedFormulas.put(sharedIndex, SharedFormula.of(formula.toString(), sharedRef));
+        }
+    }
+
+    private void loadCell() throws SAXException {
+        boolean date = style < dateStyles.length && dateStyles[style];
+        // 共享公式的从属单元格只有空的 f 元素，由主单元格的公式平移得到
+        if (hasFormula && sharedIndex != null && formula.isEmpty()) {
+            SharedFormula shared = sharedFormulas.get(sharedIndex);
+            if (shared != null) {
+                formula.append(shared.at(rowNum, column));
+            }
+        }
+        if (formulaMode == FormulaMode.FORMULA || !hasFormula) {
+            cell.load(cellType, value, formula, date, sharedStrings);
+        } else if (formulaMode == FormulaMode.EVALUATE && value.isEmpty()) {
+            try {
+                cell.load(formulaEvaluation.evaluate(rowNum, column), date);
+            } catch (IOException e) {
+                throw new SAXException("Failed to evaluate formula.", e);
+            }
+        } else {
+            // 公式缓存的结果和普通单元格的值格式一致
+            formula.setLength(0);
+            cell.load(cellType, value, formula, date, sharedStrings);
+        }
+    }
+
+    /**
+     * Converts the column part of a cell reference (e.g. "AB12") to a zero based index.
+     *
+     * @param reference The cell reference.
+     * @return The column index.
+     */
+    static int columnIndex(String reference) {
+        int index = 0;
+        for (int i = 0; i < reference.length(); i++) {
+            char c = reference.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            index = index * 26 + (c - 'A' + 1);
+        }
+        return index - 1;
+    }
+
+    /**
+     * Evaluates a formula cell of the sheet.
+     */
+    @FunctionalInterface
+    interface FormulaEvaluation {
+
+        /**
+         * Evaluates a formula cell.
+         *
+         * @param rowNum The zero based row number.
+         * @param column The zero based column index.
+         * @return The result, or null if there is no such cell.
+         * @throws IOException If the workbook can not be loaded.
+         */
+        CellValue evaluate(int rowNum, int column) throws IOException;
+    }
+
+    /**
+     * Receives the cells of every parsed row.
+     */
+    interface RowListener {
+
+        /**
+         * Called when a row starts.
+         *
+         * @param rowNum The zero based row number.
+         */
+        void startRow(int rowNum);
+
+        /**
+         * Whether the cells of a column are wanted, asked for every cell before its content is parsed.
+         *
+         * @param column The zero based column index.
+         * @return false to skip the cell.
+         */
+        boolean accepts(int column);
+
+        /**
+         * Called for every cell of the row, in column order.
+         *
+         * @param column The zero based column index.
+         * @param cell   The cell, only valid during the call.
+         */
+        void cell(int column, RawCell cell);
+
+        /**
+         * Called when a row has been parsed.
+         *
+         * @param rowNum The zero based row number.
+         */
+        void endRow(int rowNum);
+    }
+}
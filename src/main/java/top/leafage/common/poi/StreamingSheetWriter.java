@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.ss.util.WorkbookUtil;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes a single sheet xlsx file directly to a zip stream, row by row.
+ * <p>
+ * Unlike {@code SXSSFWorkbook}, which assembles the zip only when the workbook is written, the package
+ * parts are emitted up front and the sheet xml is streamed as rows arrive, so the output can be sent
+ * to the client immediately. Strings are written inline, there is no shared strings table to buffer.
+ * <p>
+ * The file is only complete once {@link #finish()} is called. A writer abandoned without it, because the
+ * rows could not be produced, leaves the sheet unterminated and the zip without its central directory, so a
+ * failed export never passes for a valid, shorter file.
+ *
+ * @author wq li
+ * @since 0.4.0
+ */
+final class StreamingSheetWriter {
+
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String PKG_REL_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+
+    // cellXfs 下标，与 STYLES 保持一致
+    private static final int STYLE_HEADER = 1;
+    private static final int STYLE_DATE = 2;
+    private static final int STYLE_DATE_TIME = 3;
+
+    private static final String CONTENT_TYPES = XML_HEADER
+            + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+            + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+            + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+            + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+            + "<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>"
+            + "<Override PartName=\"/xl/worksheets/sheet1.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>"
+            + "</Types>";
+
+    private static final String ROOT_RELS = XML_HEADER
+            + "<Relationships xmlns=\"" + PKG_REL_NS + "\">"
+            + "<Relationship Id=\"rId1\" Type=\"" + REL_NS + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+            + "</Relationships>";
+
+    private static final String WORKBOOK_RELS = XML_HEADER
+            + "<Relationships xmlns=\"" + PKG_REL_NS + "\">"
+            + "<Relationship Id=\"rId1\" Type=\"" + REL_NS + "/worksheet\" Target=\"worksheets/sheet1.xml\"/>"
+            + "<Relationship Id=\"rId2\" Type=\"" + REL_NS + "/styles\" Target=\"styles.xml\"/>"
+            + "</Relationships>";
+
+    private static final String STYLES = XML_HEADER
+            + "<styleSheet xmlns=\"" + MAIN_NS + "\">"
+            + "<numFmts count=\"2\">"
+            + "<numFmt numFmtId=\"164\" formatCode=\"yyyy-mm-dd\"/>"
+            + "<numFmt numFmtId=\"165\" formatCode=\"yyyy-mm-dd hh:mm:ss\"/>"
+            + "</numFmts>"
+            + "<fonts count=\"2\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font>"
+            + "<font><b/><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+            + "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill>"
+            + "<fill><patternFill patternType=\"gray125\"/></fill></fills>"
+            + "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+            + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+            + "<cellXfs count=\"4\">"
+            + "<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>"
+            + "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyFont=\"1\"/>"
+            + "<xf numFmtId=\"164\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>"
+            + "<xf numFmtId=\"165\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>"
+            + "</cellXfs>"
+            + "<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>"
+            + "</styleSheet>";
+
+    private final ZipOutputStream zip;
+    private final Writer writer;
+    private final String sheetName;
+    private final String[] columns;
+    private int rowNum;
+
+    /**
+     * Writes the package parts and the header row.
+     *
+     * @param outputStream The output stream, not closed.
+     * @param sheetName    The sheet name.
+     * @param headers      The header names.
+     * @throws IOException              If the stream can not be written.
+     * @throws IllegalArgumentException If the sheet name is not valid in Excel, nothing is written then.
+     */
+    StreamingSheetWriter(OutputStream outputStream, String sheetName, List<String> headers) throws IOException {
+        // 和 usermodel 的 createSheet 一样校验，否则写出 Excel 打不开的文件
+        WorkbookUtil.validateSheetName(sheetName);
+        this.zip = new ZipOutputStream(outputStream, StandardCharsets.UTF_8);
+        this.writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+        this.sheetName = sheetName;
+        this.columns = new String[headers.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = CellReference.convertNumToColString(i);
+        }
+
+        writeEntry("[Content_Types].xml", CONTENT_TYPES);
+        writeEntry("_rels/.rels", ROOT_RELS);
+        writeEntry("xl/workbook.xml", XML_HEADER
+                + "<workbook xmlns=\"" + MAIN_NS + "\" xmlns:r=\"" + REL_NS + "\"><sheets>"
+                + "<sheet name=\"" + escape(sheetName) + "\" sheetId=\"1\" r:id=\"rId1\"/>"
+                + "</sheets></workbook>");
+        writeEntry("xl/_rels/workbook.xml.rels", WORKBOOK_RELS);
+        writeEntry("xl/styles.xml", STYLES);
+
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+        writer.write(XML_HEADER);
+        writer.write("<worksheet xmlns=\"" + MAIN_NS + "\"><sheetData>");
+        startRow();
+        for (int i = 0; i < columns.length; i++) {
+            writeString(i, headers.get(i), STYLE_HEADER);
+        }
+        writer.write("</row>");
+    }
+
+    /**
+     * Appends a row, typed by the value classes. Null values leave the cell blank.
+     *
+     * @param values The values, in column order.
+     * @throws IOException           If the stream can not be written.
+     * @throws IllegalStateException If the sheet is full.
+     */
+    void writeRow(Object[] values) throws IOException {
+        ExcelWriter.checkRowLimit(rowNum, sheetName);
+        startRow();
+        for (int i = 0; i < columns.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            if (value instanceof Number number && !ExcelWriter.isNumeric(number)) {
+                writeString(i, ExcelWriter.toText(number), 0);
+            } else if (value instanceof Integer || value instanceof Long || value instanceof Short
+                    || value instanceof Byte || value instanceof BigInteger) {
+                writeNumber(i, value.toString(), 0);
+            } else if (value instanceof BigDecimal decimal) {
+                writeNumber(i, decimal.toPlainString(), 0);
+            } else if (value instanceof Number number) {
+                writeNumber(i, String.valueOf(number.doubleValue()), 0);
+            } else if (value instanceof Boolean bool) {
+                writer.write("<c r=\"" + columns[i] + rowNum + "\" t=\"b\"><v>" + (bool ? 1 : 0) + "</v></c>");
+            } else if (value instanceof LocalDateTime dateTime) {
+                writeNumber(i, String.valueOf(DateUtil.getExcelDate(dateTime)), STYLE_DATE_TIME);
+            } else if (value instanceof LocalDate date) {
+                writeNumber(i, String.valueOf(DateUtil.getExcelDate(date)), STYLE_DATE);
+            } else if (value instanceof Date date) {
+                writeNumber(i, String.valueOf(DateUtil.getExcelDate(date)), STYLE_DATE_TIME);
+            } else {
+                writeString(i, value.toString(), 0);
+            }
+        }
+        writer.write("</row>");
+    }
+
+    /**
+     * Ends the sheet and finishes the zip, the underlying stream is left open.
+     *
+     * @throws IOException If the stream can not be written.
+     */
+    void finish() throws IOException {
+        writer.write("</sheetData></worksheet>");
+        writer.flush();
+        zip.closeEntry();
+        zip.finish();
+    }
+
+    private void startRow() throws IOException {
+        rowNum++;
+        writer.write("<row r=\"" + rowNum + "\">");
+    }
+
+    private void writeNumber(int column, String value, int style) throws IOException {
+        writer.write("<c r=\"" + columns[column] + rowNum + "\"");
+        if (style != 0) {
+            writer.write(" s=\"" + style + "\"");
+        }
+        writer.write("><v>" + value + "</v></c>");
+    }
+
+    private void writeString(int column, String value, int style) throws IOException {
+        writer.write("<c r=\"" + columns[column] + rowNum + "\" t=\"inlineStr\"");
+        if (style != 0) {
+            writer.write(" s=\"" + style + "\"");
+        }
+        writer.write("><is><t xml:space=\"preserve\">" + escape(value) + "</t></is></c>");
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        writer.write(content);
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    /**
+     * Escapes xml special characters and drops characters xml 1.0 does not allow.
+     *
+     * @param value The raw text.
+     * @return The escaped text.
+     */
+    private static String escape(String value) {
+        StringBuilder sb = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement = switch (c) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                default -> c < 0x20 && c != '\t' && c != '\n' && c != '\r' ? "" : null;
+            };
+            if (replacement != null && sb == null) {
+                sb = new StringBuilder(value.length() + 16).append(value, 0, i);
+            }
+            if (sb != null) {
+                if (replacement != null) {
+                    sb.append(replacement);
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        return sb == null ? value : sb.toString();
+    }
+}
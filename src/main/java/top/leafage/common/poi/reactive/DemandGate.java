@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi.reactive;
+
+import reactor.core.publisher.Operators;
+
+/**
+ * Blocks a producer thread until the subscriber has requested more elements.
+ * Used to let a push parser honor downstream demand.
+ *
+ * @author wq li
+ * @since 0.4.0
+ */
+final class DemandGate {
+
+    private long demand;
+    private boolean cancelled;
+
+    /**
+     * Adds demand requested by the subscriber.
+     *
+     * @param n the number of requested elements
+     */
+    synchronized void request(long n) {
+        demand = Operators.addCap(demand, n);
+        notifyAll();
+    }
+
+    /**
+     * Waits until one element may be emitted.
+     *
+     * @return true if the element may be emitted, false if the subscription was cancelled
+     */
+    synchronized boolean acquire() {
+        while (demand == 0 && !cancelled) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        if (cancelled) {
+            return false;
+        }
+        if (demand != Long.MAX_VALUE) {
+            demand--;
+        }
+        return true;
+    }
+
+    /**
+     * Releases a waiting producer, no more elements will be accepted.
+     */
+    synchronized void cancel() {
+        cancelled = true;
+        notifyAll();
+    }
+}
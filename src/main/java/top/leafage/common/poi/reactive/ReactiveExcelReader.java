@@ -17,11 +17,19 @@ package top.leafage.common.poi.reactive;
 
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.codec.multipart.FilePart;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import top.leafage.common.poi.ExcelReader;
+import top.leafage.common.poi.ReadOptions;
 
-import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
 /**
  * Utility class for reading and mapping Excel files from an InputStream to the specified type.
@@ -33,6 +41,11 @@ import java.util.List;
  */
 public class ReactiveExcelReader<T> extends ExcelReader<T> {
 
+    /**
+     * Uploads up to this size in bytes are read in memory, larger ones are spooled to a temporary file.
+     */
+    public static final int DEFAULT_IN_MEMORY_THRESHOLD = 256 * 1024;
+
     /**
      * Private constructor to prevent instantiation.
      */
@@ -80,15 +93,132 @@ public class ReactiveExcelReader<T> extends ExcelReader<T> {
      * @since 0.3.7
      */
     public static <T> Mono<List<T>> read(FilePart filePart, Class<T> clazz, String sheetName, String password) {
-        return DataBufferUtils.join(filePart.content())
-                .map(dataBuffer -> {
-                    try {
-                        byte[] bytes = new byte[dataBuffer.readableByteCount()];
-                        dataBuffer.read(bytes);
-                        return read(new ByteArrayInputStream(bytes), clazz, sheetName, password);
-                    } finally {
-                        DataBufferUtils.release(dataBuffer);
+        return read(filePart, clazz, ReadOptions.builder().sheetName(sheetName).password(password).build(),
+                DEFAULT_IN_MEMORY_THRESHOLD);
+    }
+
+    /**
+     * Reads and maps data of a sheet.
+     * <p>
+     * Uploads with a known size up to {@code inMemoryThreshold} bytes are joined into a single buffer and
+     * read like {@link #readStreaming(java.io.InputStream, Class, ReadOptions)} does. Larger uploads, or uploads of unknown size, are written straight
+     * to a temporary file and the package is opened from disk, which keeps the memory of each concurrent
+     * upload bounded. Parsing runs on {@link Schedulers#boundedElastic()}.
+     *
+     * @param filePart          {@code FilePart}.
+     * @param clazz             The class to map rows to.
+     * @param options           The read options.
+     * @param inMemoryThreshold The maximum size in bytes of an upload read in memory.
+     * @param <T>               The type of objects to map the Excel data to.
+     * @return List of mapped objects.
+     * @since 0.4.0
+     */
+    public static <T> Mono<List<T>> read(FilePart filePart, Class<T> clazz, ReadOptions options, int inMemoryThreshold) {
+        long contentLength = filePart.headers().getContentLength();
+        if (contentLength >= 0 && contentLength <= inMemoryThreshold) {
+            return DataBufferUtils.join(filePart.content(), inMemoryThreshold)
+                    .publishOn(Schedulers.boundedElastic())
+                    .map(dataBuffer -> {
+                        try (InputStream inputStream = dataBuffer.asInputStream(true)) {
+                            return readStreaming(inputStream, clazz, options);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        }
+        return Mono.usingWhen(tempFile(),
+                file -> filePart.transferTo(file)
+                        .then(Mono.fromCallable(() -> readStreaming(file.toFile(), clazz, options))
+                                .subscribeOn(Schedulers.boundedElastic())),
+                ReactiveExcelReader::deleteTempFile);
+    }
+
+    /**
+     * Streams the mapped rows of the first sheet.
+     *
+     * @param filePart {@code FilePart}.
+     * @param clazz    The class to map rows to.
+     * @param <T>      The type of objects to map the Excel data to.
+     * @return Flux of mapped objects.
+     * @since 0.4.0
+     */
+    public static <T> Flux<T> stream(FilePart filePart, Class<T> clazz) {
+        return stream(filePart, clazz, ReadOptions.defaults());
+    }
+
+    /**
+     * Streams the mapped rows of a specified sheet.
+     *
+     * @param filePart  {@code FilePart}.
+     * @param clazz     The class to map rows to.
+     * @param sheetName (Optional) The name of the sheet to read.
+     * @param <T>       The type of objects to map the Excel data to.
+     * @return Flux of mapped objects.
+     * @since 0.4.0
+     */
+    public static <T> Flux<T> stream(FilePart filePart, Class<T> clazz, String sheetName) {
+        return stream(filePart, clazz, ReadOptions.builder().sheetName(sheetName).build());
+    }
+
+    /**
+     * Streams the mapped rows of a sheet.
+     * <p>
+     * The upload is spooled to a temporary file instead of being joined in memory, then parsed with the
+     * streaming parser on {@link Schedulers#boundedElastic()}. Rows are emitted only as requested downstream,
+     * the parser waits while there is no demand. The temporary file is deleted when the flux terminates.
+     *
+     * @param filePart {@code FilePart}.
+     * @param clazz    The class to map rows to.
+     * @param options  The read options.
+     * @param <T>      The type of objects to map the Excel data to.
+     * @return Flux of mapped objects.
+     * @since 0.4.0
+     */
+    public static <T> Flux<T> stream(FilePart filePart, Class<T> clazz, ReadOptions options) {
+        return Flux.usingWhen(tempFile(),
+                file -> filePart.transferTo(file).thenMany(parse(file, clazz, options)),
+                ReactiveExcelReader::deleteTempFile);
+    }
+
+    /**
+     * Parses a spooled file, emitting rows as they are requested.
+     *
+     * @param file    The spooled file.
+     * @param clazz   The class to map rows to.
+     * @param options The read options.
+     * @param <T>     The type of objects to map the Excel data to.
+     * @return Flux of mapped objects.
+     */
+    private static <T> Flux<T> parse(Path file, Class<T> clazz, ReadOptions options) {
+        // 请求直接交给 gate，不能排到等待需求的解析线程上
+        return Flux.<T>create(sink -> {
+            DemandGate gate = new DemandGate();
+            sink.onRequest(gate::request);
+            sink.onDispose(gate::cancel);
+            try {
+                readStreaming(file.toFile(), clazz, options, obj -> {
+                    if (!gate.acquire()) {
+                        // 下游已取消，中断解析
+                        throw new CancellationException();
                     }
+                    sink.next(obj);
                 });
+                sink.complete();
+            } catch (CancellationException e) {
+                // cancelled by the subscriber, nothing to signal
+            } catch (Exception e) {
+                sink.error(e);
+            }
+        }).subscribeOn(Schedulers.boundedElastic(), false);
+    }
+
+    private static Mono<Path> tempFile() {
+        return Mono.fromCallable(() -> Files.createTempFile("excel-", ".tmp"))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static Mono<Boolean> deleteTempFile(Path file) {
+        return Mono.fromCallable(() -> Files.deleteIfExists(file))
+                .subscribeOn(Schedulers.boundedElastic());
     }
 }
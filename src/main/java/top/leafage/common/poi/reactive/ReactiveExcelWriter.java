@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi.reactive;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import top.leafage.common.poi.ExcelWriter;
+
+import java.util.stream.Stream;
+
+/**
+ * Utility class for writing a {@link Flux} of objects to an Excel file, the counterpart of {@link ReactiveExcelReader}.
+ * <p>
+ * The xlsx file is generated incrementally on the bounded elastic scheduler and emitted as {@link DataBuffer}s,
+ * so a download starts as soon as the first rows are written and is throttled by the client's demand.
+ *
+ * @param <T> The type of the exported objects
+ * @author wq li
+ * @since 0.4.0
+ */
+public class ReactiveExcelWriter<T> extends ExcelWriter<T> {
+
+    /**
+     * The number of rows requested from the source at a time.
+     */
+    private static final int PREFETCH = 256;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ReactiveExcelWriter() {
+        super();
+        // Prevent instantiation
+    }
+
+    /**
+     * Writes the objects to the default sheet "sheet1".
+     *
+     * @param rows  The objects to write, one per row.
+     * @param clazz The class of the objects.
+     * @param <T>   The type of the exported objects.
+     * @return The content of the Excel file.
+     */
+    public static <T> Flux<DataBuffer> write(Flux<T> rows, Class<T> clazz) {
+        return write(rows, clazz, DEFAULT_SHEET_NAME, DefaultDataBufferFactory.sharedInstance);
+    }
+
+    /**
+     * Writes the objects to a sheet.
+     * The source is subscribed when the result is subscribed, and cancelled when the result is cancelled.
+     * An error of the source ends the result with that error, the buffers emitted before it do not form a
+     * valid file.
+     *
+     * @param rows              The objects to write, one per row.
+     * @param clazz             The class of the objects.
+     * @param sheetName         The name of the sheet.
+     * @param dataBufferFactory The factory of the emitted buffers, e.g. the one of the response.
+     * @param <T>               The type of the exported objects.
+     * @return The content of the Excel file.
+     */
+    public static <T> Flux<DataBuffer> write(Flux<T> rows, Class<T> clazz, String sheetName,
+                                             DataBufferFactory dataBufferFactory) {
+        return Flux.from(DataBufferUtils.outputStreamPublisher(outputStream -> {
+            try (Stream<T> stream = rows.toStream(PREFETCH)) {
+                writeStreaming(outputStream, clazz, stream.iterator(), sheetName);
+            }
+        }, dataBufferFactory, task -> Schedulers.boundedElastic().schedule(task)));
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.data.converter;
+
+import org.junit.jupiter.api.Test;
+import top.leafage.common.data.domain.TreeNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelToTreeNodeConverterTest {
+
+    @Test
+    void toTree() {
+        List<Category> categories = List.of(
+                new Category(1L, "家电", null, 2),
+                new Category(11L, "电视", 1L, 1),
+                new Category(2L, "数码", null, 1),
+                new Category(12L, "冰箱", 1L, 3),
+                new Category(111L, "OLED", 11L, 1),
+                // 上级不在列表中
+                new Category(31L, "图书", 3L, null));
+
+        List<TreeNode<Long>> tree = ModelToTreeNodeConverter.toTree(categories, Set.of("sort"));
+
+        assertEquals(List.of(1L, 2L, 31L), tree.stream().map(TreeNode::getId).toList());
+        TreeNode<Long> appliances = tree.get(0);
+        assertEquals(List.of(11L, 12L), appliances.getChildren().stream().map(TreeNode::getId).toList());
+        assertEquals("OLED", appliances.getChildren().get(0).getChildren().get(0).getName());
+        assertEquals(3, appliances.getChildren().get(1).getMeta().get("sort"));
+        assertEquals(Map.of("sort", 3), appliances.getChildren().get(1).getMeta());
+        assertTrue(tree.get(2).getMeta().isEmpty());
+        assertTrue(tree.get(1).getChildren().isEmpty());
+        assertTrue(tree.get(2).getChildren().isEmpty());
+    }
+
+    @Test
+    void meta() {
+        List<TreeNode<Long>> tree = ModelToTreeNodeConverter.toTree(List.of(
+                new Category(1L, "家电", null, 2),
+                new Category(2L, "数码", null, 1),
+                new Category(3L, "图书", null, null)), Set.of("sort"));
+
+        // meta 可以修改，只影响当前节点
+        Map<String, Object> meta = tree.get(0).getMeta();
+        meta.put("icon", "tv");
+        meta.put("sort", 5);
+        assertEquals(Map.of("sort", 5, "icon", "tv"), meta);
+        assertEquals(Map.of("sort", 1), tree.get(1).getMeta());
+
+        tree.get(1).getMeta().entrySet().removeIf(entry -> entry.getKey().equals("sort"));
+        assertTrue(tree.get(1).getMeta().isEmpty());
+
+        tree.get(2).getMeta().put("icon", "book");
+        assertEquals(Map.of("icon", "book"), tree.get(2).getMeta());
+
+        List<TreeNode<Long>> plain = ModelToTreeNodeConverter.toTree(List.of(new Category(1L, "家电", null, 2)), null);
+        plain.get(0).getMeta().put("sort", 2);
+        assertEquals(Map.of("sort", 2), plain.get(0).getMeta());
+    }
+
+    @Test
+    void toTreeParallel() {
+        // 足够多的节点才会并行，含孤儿、自引用和重复 id
+        List<Category> categories = new ArrayList<>();
+        for (long i = 0; i < 50000; i++) {
+            Long superiorId = i < 7 ? null : i % 1000 == 0 ? -i : i % 997 == 0 ? i : i / 7 - 1;
+            categories.add(new Category(i, "node" + i, superiorId, (int) (i % 10)));
+        }
+        categories.add(new Category(3L, "duplicate", 1L, 0));
+
+        List<TreeNode<Long>> expected = ModelToTreeNodeConverter.toTree(categories, Set.of("sort"));
+        List<TreeNode<Long>> tree = ModelToTreeNodeConverter.toTreeParallel(categories, Set.of("sort"));
+
+        assertEquals(flatten(expected), flatten(tree));
+    }
+
+    private static List<String> flatten(List<TreeNode<Long>> roots) {
+        List<String> lines = new ArrayList<>();
+        Deque<TreeNode<Long>> stack = new ArrayDeque<>(roots);
+        while (!stack.isEmpty()) {
+            TreeNode<Long> node = stack.pop();
+            lines.add(node.getId() + ":" + node.getName() + ":"
+                    + node.getChildren().stream().map(TreeNode::getId).toList());
+            node.getChildren().forEach(stack::push);
+        }
+        return lines;
+    }
+
+    @Test
+    void buildTreeIndex() {
+        List<TreeNode<Long>> nodes = List.of(
+                TreeNode.<Long>withId(1L).name("系统").build(),
+                TreeNode.<Long>withId(11L).name("用户").superiorId(1L).build(),
+                TreeNode.<Long>withId(111L).name("新增").superiorId(11L).build(),
+                TreeNode.<Long>withId(12L).name("角色").superiorId(1L).build(),
+                TreeNode.<Long>withId(2L).name("日志").build());
+
+        TreeIndex<Long> index = AbstractTreeNodeConverter.buildTreeIndex(nodes);
+
+        assertEquals(5, index.size());
+        assertEquals(2, index.getRoots().size());
+        assertEquals("新增", index.get(111L).getName());
+        assertEquals(11L, index.getParent(111L).getId());
+        assertEquals(2, index.depth(111L));
+        assertEquals(List.of(1L, 11L, 111L), index.path(111L).stream().map(TreeNode::getId).toList());
+        assertEquals(List.of(1L, 11L), index.ancestors(111L).stream().map(TreeNode::getId).toList());
+        assertEquals(List.of(11L, 111L, 12L), index.descendants(1L).stream().map(TreeNode::getId).toList());
+        assertTrue(index.isDescendant(111L, 1L));
+        assertFalse(index.isDescendant(12L, 11L));
+        assertFalse(index.isDescendant(1L, 1L));
+        assertFalse(index.isDescendant(2L, 1L));
+        assertNull(index.get(3L));
+    }
+
+    record Category(Long id, String name, Long superiorId, Integer sort) {
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.data.converter;
+
+import org.junit.jupiter.api.Test;
+import top.leafage.common.data.domain.TreeNode;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TreeCacheTest {
+
+    @Test
+    void update() {
+        TreeCache<Long> cache = TreeCache.of(List.of(
+                new ModelToTreeNodeConverterTest.Category(1L, "家电", null, 1),
+                new ModelToTreeNodeConverterTest.Category(11L, "电视", 1L, 1),
+                new ModelToTreeNodeConverterTest.Category(12L, "冰箱", 1L, 2),
+                new ModelToTreeNodeConverterTest.Category(2L, "数码", null, 2)), Set.of());
+        List<TreeNode<Long>> before = cache.tree();
+
+        cache.insert(TreeNode.<Long>withId(111L).name("OLED").superiorId(11L).build());
+        List<TreeNode<Long>> inserted = cache.tree();
+        // 旧快照不变，未修改的子树共享
+        assertTrue(before.get(0).getChildren().get(0).getChildren().isEmpty());
+        assertEquals("OLED", inserted.get(0).getChildren().get(0).getChildren().get(0).getName());
+        assertSame(before.get(1), inserted.get(1));
+        assertSame(before.get(0).getChildren().get(1), inserted.get(0).getChildren().get(1));
+
+        cache.move(11L, 2L);
+        List<TreeNode<Long>> moved = cache.tree();
+        assertEquals(List.of(12L), moved.get(0).getChildren().stream().map(TreeNode::getId).toList());
+        TreeNode<Long> tv = moved.get(1).getChildren().get(0);
+        assertEquals(2L, tv.getSuperiorId());
+        assertEquals(111L, tv.getChildren().get(0).getId());
+        assertThrows(IllegalArgumentException.class, () -> cache.move(2L, 111L));
+        assertThrows(UnsupportedOperationException.class, () -> moved.get(1).getChildren().clear());
+
+        cache.delete(11L);
+        assertTrue(cache.tree().get(1).getChildren().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> cache.delete(111L));
+        assertThrows(IllegalArgumentException.class, () -> cache.insert(TreeNode.<Long>withId(12L).build()));
+        assertEquals(1, moved.get(1).getChildren().size());
+    }
+
+    @Test
+    void moveToRoot() {
+        TreeCache<Long> cache = cache();
+
+        cache.move(11L, null);
+
+        assertEquals(List.of(1L, 2L, 11L), ids(cache.tree()));
+        TreeNode<Long> tv = cache.tree().get(2);
+        assertNull(tv.getSuperiorId());
+        assertEquals(List.of(111L), ids(tv.getChildren()));
+        assertEquals(List.of(12L), ids(cache.tree().get(0).getChildren()));
+    }
+
+    @Test
+    void moveToSameSuperior() {
+        TreeCache<Long> cache = cache();
+
+        // 同一上级下移动到最后
+        cache.move(11L, 1L);
+        assertEquals(List.of(12L, 11L), ids(cache.tree().get(0).getChildren()));
+        assertEquals(List.of(111L), ids(cache.tree().get(0).getChildren().get(1).getChildren()));
+
+        cache.move(1L, null);
+        assertEquals(List.of(2L, 1L), ids(cache.tree()));
+    }
+
+    @Test
+    void deleteRoot() {
+        TreeCache<Long> cache = cache();
+
+        cache.delete(1L);
+
+        assertEquals(List.of(2L), ids(cache.tree()));
+        // 子树一并删除，id 可以再次使用
+        assertThrows(IllegalArgumentException.class, () -> cache.move(111L, 2L));
+        cache.insert(TreeNode.<Long>withId(11L).name("电视").superiorId(2L).build());
+        assertEquals(List.of(11L), ids(cache.tree().get(0).getChildren()));
+    }
+
+    @Test
+    void insertOrphans() {
+        // 上级 1 不在列表中，11 和 12 先作为根节点
+        TreeCache<Long> cache = TreeCache.of(List.of(
+                new ModelToTreeNodeConverterTest.Category(11L, "电视", 1L, 1),
+                new ModelToTreeNodeConverterTest.Category(2L, "数码", null, 2),
+                new ModelToTreeNodeConverterTest.Category(12L, "冰箱", 1L, 2)), Set.of());
+        assertEquals(List.of(11L, 2L, 12L), ids(cache.tree()));
+
+        cache.insert(TreeNode.<Long>withId(1L).name("家电").build());
+
+        assertEquals(List.of(2L, 1L), ids(cache.tree()));
+        assertEquals(List.of(11L, 12L), ids(cache.tree().get(1).getChildren()));
+        // 索引随之更新
+        assertThrows(IllegalArgumentException.class, () -> cache.move(1L, 12L));
+        cache.delete(1L);
+        assertEquals(List.of(2L), ids(cache.tree()));
+    }
+
+    @Test
+    void insertUnderOrphan() {
+        TreeCache<Long> cache = TreeCache.of(List.of(
+                new ModelToTreeNodeConverterTest.Category(11L, "电视", 1L, 1),
+                new ModelToTreeNodeConverterTest.Category(111L, "OLED", 11L, 1)), Set.of());
+
+        // 插入到孤儿的子树下时，孤儿仍是根节点，不会成环
+        cache.insert(TreeNode.<Long>withId(1L).name("家电").superiorId(111L).build());
+
+        assertEquals(List.of(11L), ids(cache.tree()));
+        TreeNode<Long> node = cache.tree().get(0).getChildren().get(0).getChildren().get(0);
+        assertEquals(1L, node.getId());
+        assertTrue(node.getChildren().isEmpty());
+    }
+
+    private static TreeCache<Long> cache() {
+        return TreeCache.of(List.of(
+                new ModelToTreeNodeConverterTest.Category(1L, "家电", null, 1),
+                new ModelToTreeNodeConverterTest.Category(11L, "电视", 1L, 1),
+                new ModelToTreeNodeConverterTest.Category(12L, "冰箱", 1L, 2),
+                new ModelToTreeNodeConverterTest.Category(111L, "OLED", 11L, 1),
+                new ModelToTreeNodeConverterTest.Category(2L, "数码", null, 2)), Set.of());
+    }
+
+    private static List<Long> ids(List<TreeNode<Long>> nodes) {
+        return nodes.stream().map(TreeNode::getId).toList();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CompactSharedStringsTest {
+
+    @Test
+    void latin1() throws Exception {
+        List<String> values = new ArrayList<>();
+        int chars = 0;
+        for (int i = 0; i < 1000; i++) {
+            String value = "café-" + i;
+            values.add(value);
+            chars += value.length();
+        }
+
+        CompactSharedStrings strings = load(values, ReadOptions.DEFAULT_SHARED_STRINGS_MEMORY_LIMIT);
+
+        // Latin-1 每个字符一个字节，是 char 数组的一半
+        assertEquals(chars, strings.arenaSize());
+        assertStrings(values, strings);
+    }
+
+    @Test
+    void utf8() throws Exception {
+        List<String> values = List.of("张三", "a张b", "€", "", "😀");
+
+        CompactSharedStrings strings = load(values, ReadOptions.DEFAULT_SHARED_STRINGS_MEMORY_LIMIT);
+
+        int bytes = values.stream().mapToInt(value -> value.getBytes(StandardCharsets.UTF_8).length).sum();
+        assertEquals(bytes, strings.arenaSize());
+        assertStrings(values, strings);
+    }
+
+    @Test
+    void duplicates() throws Exception {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            values.add(i % 2 == 0 ? "ACTIVE" : "INACTIVE");
+        }
+        values.add("");
+        values.add("");
+
+        CompactSharedStrings strings = load(values, ReadOptions.DEFAULT_SHARED_STRINGS_MEMORY_LIMIT);
+
+        // 相同内容只存一份，取出的是同一个实例
+        assertEquals("ACTIVE".length() + "INACTIVE".length(), strings.arenaSize());
+        assertStrings(values, strings);
+        assertSame(strings.apply(0), strings.apply(9998));
+        assertSame(strings.apply(1), strings.apply(9999));
+    }
+
+    @Test
+    void spilled() throws Exception {
+        List<String> values = new ArrayList<>();
+        String large = "x".repeat(40000);
+        for (int i = 0; i < 3000; i++) {
+            values.add("row" + i % 1000);
+            if (i % 1000 == 0) {
+                values.add(large);
+                values.add("张" + i);
+            }
+        }
+        int bytes = values.stream().distinct()
+                .mapToInt(value -> value.getBytes(StandardCharsets.UTF_8).length).sum();
+
+        // 溢出前后写入的重复内容都能去重
+        for (int memoryLimit : new int[]{0, 1000, 50000}) {
+            CompactSharedStrings strings = load(values, memoryLimit);
+
+            assertEquals(bytes, strings.arenaSize());
+            assertStrings(values, strings);
+        }
+    }
+
+    @Test
+    void isBlank() throws Exception {
+        List<String> values = List.of("", " ", "\t\n", "a", " a", "\u3000", "张", " \u3000 ", "é ");
+
+        for (int memoryLimit : new int[]{ReadOptions.DEFAULT_SHARED_STRINGS_MEMORY_LIMIT, 0}) {
+            CompactSharedStrings strings = load(values, memoryLimit);
+
+            for (int i = 0; i < values.size(); i++) {
+                assertEquals(values.get(i).isBlank(), strings.isBlank(i), values.get(i));
+            }
+        }
+    }
+
+    @Test
+    void escapes() throws Exception {
+        CompactSharedStrings strings = load(List.of("line1_x000D_\nline2", "_x005F_x"), 0);
+
+        assertEquals("line1\r\nline2", strings.apply(0));
+        assertEquals("_x", strings.apply(1));
+    }
+
+    @Test
+    void uniqueCount() throws Exception {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            values.add("value-" + i);
+        }
+
+        // uniqueCount 来自上传的文件，只作为预分配的提示
+        for (String uniqueCount : new String[]{"2000000000", "2147483647", "-1", "abc", "", "0"}) {
+            assertStrings(values, load(values, uniqueCount, ReadOptions.DEFAULT_SHARED_STRINGS_MEMORY_LIMIT));
+        }
+    }
+
+    private static void assertStrings(List<String> expected, CompactSharedStrings strings) {
+        assertEquals(expected.size(), strings.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), strings.apply(i));
+        }
+    }
+
+    private static CompactSharedStrings load(List<String> values, int memoryLimit) throws Exception {
+        return load(values, String.valueOf(values.size()), memoryLimit);
+    }
+
+    private static CompactSharedStrings load(List<String> values, String uniqueCount, int memoryLimit)
+            throws Exception {
+        StringBuilder xml = new StringBuilder("<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\""
+                + " count=\"" + values.size() + "\" uniqueCount=\"" + uniqueCount + "\">");
+        for (String value : values) {
+            xml.append("<si><t xml:space=\"preserve\">")
+                    .append(value.replace("&", "&amp;").replace("<", "&lt;"))
+                    .append("</t></si>");
+        }
+        xml.append("</sst>");
+        return CompactSharedStrings.load(new ByteArrayInputStream(xml.toString().getBytes(StandardCharsets.UTF_8)),
+                memoryLimit);
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvReaderTest {
+
+    @Test
+    void read() {
+        // BOM、未映射的列、引号转义、跨行字段、空行、CRLF
+        String csv = "\uFEFF姓名,部门,年龄,邮箱\r\n"
+                + "zhangsan,\"研发,一部\",20,zhangsan@example.com\r\n"
+                + "\"li \"\"si\"\"\",\"\"\"\",30,\"lisi\r\n@example.com\"\r\n"
+                + ",,,\r\n"
+                + "\n"
+                + "wangwu,,abc,\r\n"
+                + "zhaoliu,,40,";
+        List<RowError> errors = new ArrayList<>();
+        List<ExcelReaderTest.User> users = CsvReader.read(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                ExcelReaderTest.User.class, CsvFormat.CSV, ReadOptions.builder().errorHandler(errors::add).build());
+
+        assertEquals(3, users.size());
+        assertEquals("zhangsan", users.get(0).getName());
+        assertEquals(20, users.get(0).getAge());
+        assertEquals("li \"si\"", users.get(1).getName());
+        assertEquals("lisi\r\n@example.com", users.get(1).getEmail());
+        assertEquals("zhaoliu", users.get(2).getName());
+        assertEquals(40, users.get(2).getAge());
+
+        assertEquals(1, errors.size());
+        assertEquals(6, errors.get(0).getRowNum());
+        assertEquals("年龄", errors.get(0).getColumn());
+    }
+
+    @Test
+    void readTsvBatches() throws Exception {
+        Charset gbk = Charset.forName("GBK");
+        StringBuilder tsv = new StringBuilder("name\tage\temail\n");
+        for (int i = 0; i < 1000; i++) {
+            tsv.append("用户").append(i).append('\t').append(i).append('\t').append("user").append(i).append("@example.com\n");
+        }
+        Path file = Files.createTempFile("users", ".tsv");
+        try {
+            Files.write(file, tsv.toString().getBytes(gbk));
+
+            List<List<ExcelReaderTest.User>> batches = new ArrayList<>();
+            CsvReader.read(file, ExcelReaderTest.User.class, batches::add, 300, CsvFormat.TSV.withCharset(gbk),
+                    ReadOptions.defaults());
+
+            assertEquals(4, batches.size());
+            assertEquals(100, batches.get(3).size());
+            ExcelReaderTest.User last = batches.get(3).get(99);
+            assertEquals("用户999", last.getName());
+            assertEquals(999, last.getAge());
+            assertEquals("user999@example.com", last.getEmail());
+
+            // 编码不符时报错，而不是导入乱码
+            assertThrows(UncheckedIOException.class, () -> CsvReader.read(file, ExcelReaderTest.User.class,
+                    batch -> {
+                    }, 300, CsvFormat.TSV, ReadOptions.defaults()));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void stream() throws Exception {
+        // 跨行的引号字段、转义的引号，切分点会落在引号内
+        StringBuilder csv = new StringBuilder("name,age,email\n");
+        for (int i = 0; i < 60000; i++) {
+            csv.append("\"user ").append(i).append("\",").append(i % 1000 == 999 ? "abc" : String.valueOf(i))
+                    .append(",\"user").append(i).append("\n\"\"at\"\",example.com\"\n");
+        }
+        Path file = Files.createTempFile("users", ".csv");
+        try {
+            Files.writeString(file, csv);
+            List<RowError> errors = new ArrayList<>();
+            ReadOptions options = ReadOptions.builder().errorHandler(errors::add).build();
+
+            List<ExcelReaderTest.User> expected = CsvReader.read(file, ExcelReaderTest.User.class, CsvFormat.CSV, options);
+            List<Integer> expectedErrors = errors.stream().map(RowError::getRowNum).toList();
+            errors.clear();
+            List<ExcelReaderTest.User> users;
+            try (Stream<ExcelReaderTest.User> stream = CsvReader.stream(file, ExcelReaderTest.User.class,
+                    CsvFormat.CSV, options)) {
+                users = stream.toList();
+            }
+
+            try (FileChannel channel = FileChannel.open(file)) {
+                assertTrue(CsvChunks.split(channel, CsvFormat.CSV, 1).size() > 1);
+            }
+            assertEquals(59940, users.size());
+            assertEquals(expected.size(), users.size());
+            for (int i = 0; i < users.size(); i++) {
+                assertEquals(expected.get(i).getName(), users.get(i).getName());
+                assertEquals(expected.get(i).getAge(), users.get(i).getAge());
+                assertEquals(expected.get(i).getEmail(), users.get(i).getEmail());
+            }
+            assertEquals("user59998\n\"at\",example.com", users.get(users.size() - 1).getEmail());
+            assertEquals(expectedErrors, errors.stream().map(RowError::getRowNum).sorted().toList());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void streamError() throws Exception {
+        StringBuilder csv = new StringBuilder("name,age,email\n");
+        for (int i = 0; i < 60000; i++) {
+            csv.append("user").append(i).append(',').append(i).append(",user").append(i).append("@example.com\n");
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+        // 靠后的分块里有非法的 UTF-8 字节
+        bytes[bytes.length - 100] = (byte) 0xFF;
+        Path file = Files.createTempFile("users", ".csv");
+        try {
+            Files.write(file, bytes);
+            List<ReadMetrics> completed = new ArrayList<>();
+            List<Throwable> failed = new ArrayList<>();
+            ReadOptions options = ReadOptions.builder().readListener(new ReadListener() {
+                @Override
+                public void onComplete(ReadMetrics metrics) {
+                    completed.add(metrics);
+                }
+
+                @Override
+                public void onError(ReadMetrics metrics, Throwable error) {
+                    failed.add(error);
+                }
+            }).build();
+
+            try (FileChannel channel = FileChannel.open(file)) {
+                assertTrue(CsvChunks.split(channel, CsvFormat.CSV, 1).size() > 1);
+            }
+            try (Stream<ExcelReaderTest.User> stream = CsvReader.stream(file, ExcelReaderTest.User.class,
+                    CsvFormat.CSV, options)) {
+                assertThrows(UncheckedIOException.class, stream::toList);
+            }
+
+            // 关闭流时不再报告成功
+            assertEquals(0, completed.size());
+            assertEquals(1, failed.size());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void streamUtf16() throws Exception {
+        // UTF-16 的换行字节会出现在其他字符里，不能按字节切分
+        StringBuilder tsv = new StringBuilder("\uFEFFname\tage\temail\n");
+        for (int i = 0; i < 1000; i++) {
+            tsv.append("用户").append(i).append('\t').append(i).append('\t').append("user").append(i).append("@example.com\n");
+        }
+        Path file = Files.createTempFile("users", ".tsv");
+        try {
+            Files.write(file, tsv.toString().getBytes(StandardCharsets.UTF_16LE));
+            CsvFormat format = CsvFormat.TSV.withCharset(StandardCharsets.UTF_16LE);
+
+            List<ExcelReaderTest.User> users;
+            try (Stream<ExcelReaderTest.User> stream = CsvReader.stream(file, ExcelReaderTest.User.class,
+                    format, ReadOptions.defaults())) {
+                users = stream.toList();
+            }
+
+            assertEquals(1000, users.size());
+            assertEquals("用户0", users.get(0).getName());
+            assertEquals("用户999", users.get(999).getName());
+            assertEquals(999, users.get(999).getAge());
+            assertEquals("user999@example.com", users.get(999).getEmail());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void streamCarriageReturns() throws Exception {
+        // 只用回车分行，且混有 CRLF，切分点可能落在回车和换行之间
+        StringBuilder csv = new StringBuilder("name,age,email\r");
+        for (int i = 0; i < 60000; i++) {
+            csv.append("user").append(i).append(',').append(i % 1000 == 999 ? "abc" : String.valueOf(i))
+                    .append(",user").append(i).append("@example.com").append(i % 2 == 0 ? "\r" : "\r\n");
+        }
+        Path file = Files.createTempFile("users", ".csv");
+        try {
+            Files.writeString(file, csv);
+            List<RowError> errors = new ArrayList<>();
+            ReadOptions options = ReadOptions.builder().errorHandler(errors::add).build();
+
+            List<ExcelReaderTest.User> users;
+            try (Stream<ExcelReaderTest.User> stream = CsvReader.stream(file, ExcelReaderTest.User.class,
+                    CsvFormat.CSV, options)) {
+                users = stream.toList();
+            }
+
+            try (FileChannel channel = FileChannel.open(file)) {
+                CsvChunks chunks = CsvChunks.split(channel, CsvFormat.CSV, 1);
+                assertTrue(chunks.size() > 1);
+                assertEquals("name,age,email\r".length(), chunks.header().remaining());
+            }
+            assertEquals(59940, users.size());
+            for (int i = 0; i < users.size(); i++) {
+                int n = i + i / 999;
+                assertEquals("user" + n, users.get(i).getName());
+                assertEquals(n, users.get(i).getAge());
+            }
+            List<Integer> rowNums = new ArrayList<>();
+            for (int i = 1001; i <= 60001; i += 1000) {
+                rowNums.add(i);
+            }
+            assertEquals(rowNums, errors.stream().map(RowError::getRowNum).sorted().toList());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void validate() {
+        String csv = "姓名,年龄,手机\n"
+                + "zhangsan,20,13800000000\n"
+                + " ,20,13800000000\n"
+                + "lisi,200,13800000000\n"
+                + "wangwu,30,1380000\n"
+                + "zhaoliu-zhaoliu,30,\n"
+                + "sunqi,,\n";
+        List<RowError> errors = new ArrayList<>();
+        List<Member> members = CsvReader.read(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                Member.class, CsvFormat.CSV, ReadOptions.builder().errorHandler(errors::add).build());
+
+        assertEquals(2, members.size());
+        assertEquals("zhangsan", members.get(0).getName());
+        assertEquals("sunqi", members.get(1).getName());
+
+        assertEquals(4, errors.size());
+        assertEquals(3, errors.get(0).getRowNum());
+        assertEquals("姓名", errors.get(0).getColumn());
+        assertEquals("姓名 must not be blank", errors.get(0).getMessage());
+        assertEquals("年龄 must be between 0 and 150", errors.get(1).getMessage());
+        assertEquals("手机 must match 1\\d{10}", errors.get(2).getMessage());
+        assertEquals(6, errors.get(3).getRowNum());
+        assertEquals("姓名 length must be at most 10", errors.get(3).getMessage());
+    }
+
+    @Test
+    void validateMissingRequired() {
+        String csv = "年龄,手机\n"
+                + "20,13800000000\n"
+                + "30,\n";
+        List<RowError> errors = new ArrayList<>();
+        List<Member> members = CsvReader.read(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                Member.class, CsvFormat.CSV, ReadOptions.builder().errorHandler(errors::add).build());
+
+        assertTrue(members.isEmpty());
+        assertEquals(List.of(2, 3), errors.stream().map(RowError::getRowNum).toList());
+        assertEquals("姓名 is required but missing from the header", errors.get(1).getMessage());
+    }
+
+    static class Member {
+
+        @ExcelColumn(value = "姓名", required = true, maxLength = 10)
+        private String name;
+
+        @ExcelColumn(value = "年龄", min = 0, max = 150)
+        private Integer age;
+
+        @ExcelColumn(value = "手机", pattern = "1\\d{10}")
+        private String mobile;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getAge() {
+            return age;
+        }
+
+        public void setAge(Integer age) {
+            this.age = age;
+        }
+
+        public String getMobile() {
+            return mobile;
+        }
+
+        public void setMobile(String mobile) {
+            this.mobile = mobile;
+        }
+    }
+}
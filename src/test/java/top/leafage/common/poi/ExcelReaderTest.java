@@ -15,18 +15,42 @@
 
 package top.leafage.common.poi;
 
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ExcelReaderTest {
 
@@ -78,6 +102,676 @@ class ExcelReaderTest {
         assertEquals("lisi@example.com", user2.getEmail());
     }
 
+    @Test
+    void readStreaming() throws Exception {
+        ByteArrayInputStream input = new ByteArrayInputStream(createWorkbook());
+
+        List<User> users = ExcelReader.readStreaming(input, User.class);
+
+        assertUsers(users);
+    }
+
+    @Test
+    void readStreamingSpooled() throws Exception {
+        // 超过 256 KiB 的包先写入临时文件再打开
+        Workbook workbook = new XSSFWorkbook();
+        Sheet sheet = workbook.createSheet("sheet1");
+        Row header = sheet.createRow(0);
+        header.createCell(0).setCellValue("姓名");
+        header.createCell(1).setCellValue("年龄");
+        header.createCell(2).setCellValue("邮箱");
+        Random random = new Random(42);
+        for (int i = 1; i <= 20000; i++) {
+            Row row = sheet.createRow(i);
+            row.createCell(0).setCellValue("user" + Long.toHexString(random.nextLong()));
+            row.createCell(1).setCellValue(i);
+            row.createCell(2).setCellValue(Long.toHexString(random.nextLong()) + "@example.com");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        workbook.close();
+        assertTrue(out.size() > 256 * 1024);
+
+        List<User> users = ExcelReader.readStreaming(new ByteArrayInputStream(out.toByteArray()), User.class,
+                ReadOptions.defaults());
+
+        assertEquals(20000, users.size());
+        assertEquals(20000, users.get(19999).getAge());
+        assertTrue(users.get(19999).getEmail().endsWith("@example.com"));
+    }
+
+    @Test
+    void readRecord() throws Exception {
+        ByteArrayInputStream input = new ByteArrayInputStream(createWorkbook());
+
+        List<Person> persons = ExcelReader.readStreaming(input, Person.class);
+
+        assertEquals(2, persons.size());
+        assertEquals(new Person("张三", 28, "zhangsan@example.com"), persons.get(0));
+        assertEquals(new Person("李四", 32, "lisi@example.com"), persons.get(1));
+    }
+
+    @Test
+    void readConstructorBound() throws Exception {
+        ByteArrayInputStream input = new ByteArrayInputStream(createWorkbook());
+
+        // 有 -parameters 时通过构造器绑定，否则退回无参构造器和 setter
+        List<Member> members = ExcelReader.readStreaming(input, Member.class);
+
+        assertEquals(2, members.size());
+        assertEquals("张三", members.get(0).getName());
+        assertEquals(32, members.get(1).getAge());
+        assertEquals("lisi@example.com", members.get(1).getEmail());
+    }
+
+    @Test
+    void readBatches() throws Exception {
+        Workbook workbook = new XSSFWorkbook();
+        Sheet sheet = workbook.createSheet("sheet1");
+        Row header = sheet.createRow(0);
+        header.createCell(0).setCellValue("姓名");
+        header.createCell(1).setCellValue("年龄");
+        for (int i = 1; i <= 5; i++) {
+            Row row = sheet.createRow(i);
+            row.createCell(0).setCellValue("user" + i);
+            if (i == 3) {
+                row.createCell(1).setCellValue("abc");
+            } else {
+                row.createCell(1).setCellValue(20 + i);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        workbook.close();
+
+        List<List<User>> batches = new ArrayList<>();
+        List<RowError> errors = new ArrayList<>();
+        ReadOptions options = ReadOptions.builder().errorHandler(errors::add).build();
+        ExcelReader.read(new ByteArrayInputStream(out.toByteArray()), User.class, batches::add, 2, options);
+
+        assertEquals(2, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals(2, batches.get(1).size());
+        assertEquals("user5", batches.get(1).get(1).getName());
+
+        assertEquals(1, errors.size());
+        assertEquals(4, errors.get(0).getRowNum());
+        assertEquals("年龄", errors.get(0).getColumn());
+    }
+
+    @Test
+    void readAll() throws Exception {
+        Workbook workbook = new XSSFWorkbook();
+        for (int s = 0; s < 3; s++) {
+            Sheet sheet = workbook.createSheet("sheet" + s);
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("姓名");
+            header.createCell(1).setCellValue("年龄");
+            for (int i = 1; i <= 10 * (s + 1); i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue("user" + s + "-" + i);
+                row.createCell(1).setCellValue(i);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        workbook.close();
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Map<String, List<User>> sheets = ExcelReader.readAll(new ByteArrayInputStream(out.toByteArray()),
+                    User.class, executor);
+            assertEquals(List.of("sheet0", "sheet1", "sheet2"), List.copyOf(sheets.keySet()));
+            assertEquals(30, sheets.get("sheet2").size());
+            assertEquals("user2-30", sheets.get("sheet2").get(29).getName());
+
+            // 只读取映射了类型的 sheet
+            Map<String, List<?>> mapped = ExcelReader.readAll(new ByteArrayInputStream(out.toByteArray()),
+                    Map.of("sheet1", User.class), executor);
+            assertEquals(Set.of("sheet1"), mapped.keySet());
+            assertEquals(20, mapped.get("sheet1").size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void validate() throws Exception {
+        String[][] rows = {
+                {"姓名", "年龄", "手机"},
+                {"zhangsan", "20", "13800000000"},
+                {" ", "20", "13800000000"},
+                {"lisi", "200", "13800000000"},
+                {"wangwu", "30", "1380000"},
+                {"zhaoliu-zhaoliu", "30", ""},
+                {"sunqi", "", ""}};
+        // xlsx 走流式解析，xls 走 usermodel
+        for (Workbook workbook : new Workbook[]{new XSSFWorkbook(), new HSSFWorkbook()}) {
+            List<RowError> errors = new ArrayList<>();
+            List<CsvReaderTest.Member> members = ExcelReader.readStreaming(
+                    new ByteArrayInputStream(write(workbook, rows)), CsvReaderTest.Member.class,
+                    ReadOptions.builder().errorHandler(errors::add).build());
+
+            assertEquals(2, members.size());
+            assertEquals("zhangsan", members.get(0).getName());
+            assertEquals("sunqi", members.get(1).getName());
+
+            assertEquals(4, errors.size());
+            assertEquals(3, errors.get(0).getRowNum());
+            assertEquals("姓名", errors.get(0).getColumn());
+            assertEquals("姓名 must not be blank", errors.get(0).getMessage());
+            assertEquals("年龄 must be between 0 and 150", errors.get(1).getMessage());
+            assertEquals("手机 must match 1\\d{10}", errors.get(2).getMessage());
+            assertEquals(6, errors.get(3).getRowNum());
+            assertEquals("姓名 length must be at most 10", errors.get(3).getMessage());
+        }
+    }
+
+    @Test
+    void validateMissingRequired() throws Exception {
+        String[][] rows = {
+                {"年龄", "手机"},
+                {"20", "13800000000"},
+                {"", ""},
+                {"30", ""}};
+        for (Workbook workbook : new Workbook[]{new XSSFWorkbook(), new HSSFWorkbook()}) {
+            List<RowError> errors = new ArrayList<>();
+            List<CsvReaderTest.Member> members = ExcelReader.readStreaming(
+                    new ByteArrayInputStream(write(workbook, rows)), CsvReaderTest.Member.class,
+                    ReadOptions.builder().errorHandler(errors::add).build());
+
+            // 必填列缺失时每个非空行都报错
+            assertTrue(members.isEmpty());
+            assertEquals(List.of(2, 4), errors.stream().map(RowError::getRowNum).toList());
+            assertEquals("姓名", errors.get(0).getColumn());
+            assertEquals("姓名 is required but missing from the header", errors.get(0).getMessage());
+        }
+    }
+
+    @Test
+    void readAllError() throws Exception {
+        Workbook workbook = new XSSFWorkbook();
+        Sheet sheet = workbook.createSheet("sheet1");
+        Row header = sheet.createRow(0);
+        header.createCell(0).setCellValue("姓名");
+        header.createCell(1).setCellValue("年龄");
+        Row row = sheet.createRow(1);
+        row.createCell(0).setCellValue("user");
+        row.createCell(1).setCellValue("abc");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        workbook.close();
+
+        ReadOptions options = ReadOptions.builder().errorHandler(error -> {
+            throw new IllegalStateException("row " + error.getRowNum());
+        }).build();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // sheet 任务抛出的异常原样抛出，不包装成 CompletionException
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> ExcelReader.readAll(
+                    new ByteArrayInputStream(out.toByteArray()), User.class, options, executor));
+            assertEquals("row 2", e.getMessage());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void readParallelConversion() throws Exception {
+        Workbook workbook = new XSSFWorkbook();
+        Sheet sheet = workbook.createSheet("sheet1");
+        Row header = sheet.createRow(0);
+        header.createCell(0).setCellValue("姓名");
+        header.createCell(1).setCellValue("年龄");
+        for (int i = 1; i <= 1000; i++) {
+            Row row = sheet.createRow(i);
+            row.createCell(0).setCellValue("user" + i);
+            if (i == 500) {
+                row.createCell(1).setCellValue("abc");
+            } else {
+                row.createCell(1).setCellValue(i);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        workbook.close();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<RowError> errors = new ArrayList<>();
+            ReadOptions options = ReadOptions.builder().errorHandler(errors::add)
+                    .conversionExecutor(executor).conversionBatchSize(64).build();
+            List<User> users = ExcelReader.readStreaming(new ByteArrayInputStream(out.toByteArray()), User.class, options);
+
+            // 并行转换后仍保持行顺序
+            assertEquals(999, users.size());
+            assertEquals("user499", users.get(498).getName());
+            assertEquals("user501", users.get(499).getName());
+            assertEquals(1000, users.get(998).getAge());
+            assertEquals(1, errors.size());
+            assertEquals(501, errors.get(0).getRowNum());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void readTypedCells() throws Exception {
+        Workbook workbook = new XSSFWorkbook();
+        CellStyle dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+        Sheet sheet = workbook.createSheet("sheet1");
+        Row header = sheet.createRow(0);
+        String[] names = {"birthday", "createdAt", "balance", "accountId", "enabled", "extra"};
+        for (int i = 0; i < names.length; i++) {
+            header.createCell(i).setCellValue(names[i]);
+        }
+        Row row = sheet.createRow(1);
+        row.createCell(0).setCellValue(LocalDate.of(1990, 5, 17));
+        row.getCell(0).setCellStyle(dateStyle);
+        row.createCell(1).setCellValue(LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+        row.getCell(1).setCellStyle(dateStyle);
+        row.createCell(2).setCellValue(12.5);
+        row.createCell(3).setCellValue("9000000000");
+        row.createCell(4).setCellValue(true);
+        row.createCell(5).setCellValue(LocalDate.of(2020, 2, 29));
+        row.getCell(5).setCellStyle(dateStyle);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        workbook.close();
+
+        List<Account> streamed = ExcelReader.readStreaming(new ByteArrayInputStream(out.toByteArray()), Account.class);
+        List<Account> read = ExcelReader.read(new ByteArrayInputStream(out.toByteArray()), Account.class);
+
+        for (Account account : List.of(streamed.get(0), read.get(0))) {
+            assertEquals(LocalDate.of(1990, 5, 17), account.getBirthday());
+            assertEquals(LocalDateTime.of(2024, 1, 2, 3, 4, 5), account.getCreatedAt());
+            assertEquals(new BigDecimal("12.5"), account.getBalance());
+            assertEquals(9_000_000_000L, account.getAccountId());
+            assertEquals(Boolean.TRUE, account.getEnabled());
+            // Object 类型的日期单元格解码为 LocalDateTime
+            assertEquals(LocalDate.of(2020, 2, 29).atStartOfDay(), account.getExtra());
+        }
+    }
+
+    @Test
+    void readCompactSharedStrings() throws Exception {
+        XSSFWorkbook workbook = new XSSFWorkbook();
+        Font bold = workbook.createFont();
+        bold.setBold(true);
+        Sheet sheet = workbook.createSheet("sheet1");
+        Row header = sheet.createRow(0);
+        header.createCell(0).setCellValue("姓名");
+        header.createCell(1).setCellValue("邮箱");
+        for (int i = 1; i <= 100; i++) {
+            Row row = sheet.createRow(i);
+            XSSFRichTextString name = new XSSFRichTextString("status" + i % 3);
+            name.applyFont(0, 3, bold);
+            row.createCell(0).setCellValue(name);
+            row.createCell(1).setCellValue("line1\r\nline2");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        workbook.close();
+
+        // 0 表示全部写入内存映射文件
+        for (int memoryLimit : new int[]{ReadOptions.DEFAULT_SHARED_STRINGS_MEMORY_LIMIT, 0}) {
+            ReadOptions options = ReadOptions.builder().compactSharedStrings(true)
+                    .sharedStringsMemoryLimit(memoryLimit).build();
+            List<User> users = ExcelReader.readStreaming(new ByteArrayInputStream(out.toByteArray()), User.class, options);
+
+            assertEquals(100, users.size());
+            assertEquals("status1", users.get(0).getName());
+            assertEquals("line1\r\nline2", users.get(99).getEmail());
+            // 重复的字符串是同一个实例
+            assertSame(users.get(0).getName(), users.get(3).getName());
+        }
+    }
+
+    @Test
+    void readFormulas() throws Exception {
+        Workbook workbook = new XSSFWorkbook();
+        Sheet sheet = workbook.createSheet("sheet1");
+        Row header = sheet.createRow(0);
+        header.createCell(0).setCellValue("balance");
+        header.createCell(1).setCellValue("extra");
+        for (int i = 1; i <= 2; i++) {
+            Row row = sheet.createRow(i);
+            row.createCell(0).setCellValue(i * 10);
+        }
+        sheet.getRow(1).createCell(1).setCellFormula("A2*2");
+        workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+        // 未计算的公式没有缓存结果
+        sheet.getRow(2).createCell(1).setCellFormula("A3*2");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        workbook.close();
+
+        List<Account> formulas = ExcelReader.readStreaming(new ByteArrayInputStream(out.toByteArray()), Account.class);
+        assertEquals("A2*2", formulas.get(0).getExtra());
+        assertEquals("A3*2", formulas.get(1).getExtra());
+
+        List<Account> cached = ExcelReader.readStreaming(new ByteArrayInputStream(out.toByteArray()), Account.class,
+                ReadOptions.builder().formulaMode(FormulaMode.CACHED).build());
+        assertEquals(20.0, cached.get(0).getExtra());
+        assertNull(cached.get(1).getExtra());
+
+        List<Account> evaluated = ExcelReader.readStreaming(new ByteArrayInputStream(out.toByteArray()), Account.class,
+                ReadOptions.builder().formulaMode(FormulaMode.EVALUATE).build());
+        assertEquals(20.0, evaluated.get(0).getExtra());
+        assertEquals(40.0, evaluated.get(1).getExtra());
+    }
+
+    @Test
+    void readSharedFormulas() throws Exception {
+        // 列 B 未映射：B2:C2 的主单元格被跳过，C2 仍要得到平移后的公式
+        Workbook workbook = new XSSFWorkbook();
+        Sheet sheet = workbook.createSheet("sheet1");
+        Row header = sheet.createRow(0);
+        header.createCell(0).setCellValue("balance");
+        header.createCell(1).setCellValue("note");
+        header.createCell(2).setCellValue("extra");
+        for (int i = 1; i <= 4; i++) {
+            sheet.createRow(i).createCell(0).setCellValue(i * 10);
+        }
+        sheet.getRow(1).createCell(1).setCellFormula("A2*2");
+        sheet.getRow(1).createCell(2).setCellFormula("B2*2");
+        sheet.getRow(2).createCell(2).setCellFormula("$A3+A$2+SUM(A:A)+LEN(\"A3\")");
+        sheet.getRow(3).createCell(2).setCellFormula("$A4+A$2+SUM(A:A)+LEN(\"A3\")");
+        sheet.getRow(4).createCell(2).setCellFormula("$A5+A$2+SUM(A:A)+LEN(\"A3\")");
+        workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        workbook.close();
+        // Excel 填充的范围写成共享公式，POI 写出时不会生成
+        byte[] bytes = shareFormulas(out.toByteArray(), Map.of(
+                "<f>A2*2</f>", "<f t=\"shared\" ref=\"B2:C2\" si=\"0\">A2*2</f>",
+                "<f>B2*2</f>", "<f t=\"shared\" si=\"0\"/>",
+                "<f>$A3+A$2+SUM(A:A)+LEN(\"A3\")</f>",
+                "<f t=\"shared\" ref=\"C3:C5\" si=\"1\">$A3+A$2+SUM(A:A)+LEN(\"A3\")</f>",
+                "<f>$A4+A$2+SUM(A:A)+LEN(\"A3\")</f>", "<f t=\"shared\" si=\"1\"/>",
+                "<f>$A5+A$2+SUM(A:A)+LEN(\"A3\")</f>", "<f t=\"shared\" si=\"1\"></f>"));
+
+        List<Account> formulas = ExcelReader.readStreaming(new ByteArrayInputStream(bytes), Account.class);
+        assertEquals(4, formulas.size());
+        assertEquals("B2*2", formulas.get(0).getExtra());
+        assertEquals("$A3+A$2+SUM(A:A)+LEN(\"A3\")", formulas.get(1).getExtra());
+        assertEquals("$A4+A$2+SUM(A:A)+LEN(\"A3\")", formulas.get(2).getExtra());
+        assertEquals("$A5+A$2+SUM(A:A)+LEN(\"A3\")", formulas.get(3).getExtra());
+
+        // 和 usermodel 读到的公式一致
+        List<Account> usermodel = ExcelReader.read(new ByteArrayInputStream(bytes), Account.class);
+        for (int i = 0; i < usermodel.size(); i++) {
+            assertEquals(usermodel.get(i).getExtra(), formulas.get(i).getExtra());
+        }
+
+        List<Account> cached = ExcelReader.readStreaming(new ByteArrayInputStream(bytes), Account.class,
+                ReadOptions.builder().formulaMode(FormulaMode.CACHED).build());
+        assertEquals(40.0, cached.get(0).getExtra());
+        assertEquals(132.0, cached.get(1).getExtra());
+        assertEquals(152.0, cached.get(3).getExtra());
+    }
+
+    @Test
+    void readSkippedColumns() throws Exception {
+        // 备注、公式两列未映射，表头里的 邮箱 和 其他 写成内联字符串
+        Workbook workbook = new XSSFWorkbook();
+        Sheet sheet = workbook.createSheet("sheet1");
+        Row header = sheet.createRow(0);
+        String[] headers = {"姓名", "备注", "年龄", "公式", "邮箱", "其他"};
+        for (int c = 0; c < headers.length; c++) {
+            header.createCell(c).setCellValue(headers[c]);
+        }
+        for (int i = 1; i <= 3; i++) {
+            Row row = sheet.createRow(i);
+            row.createCell(0).setCellValue("user" + i);
+            row.createCell(1).setCellValue("note" + i);
+            row.createCell(2).setCellValue(20 + i);
+            row.createCell(3).setCellFormula(i == 2 ? "A3&\"x\"" : "C" + (i + 1) + "*2");
+            row.createCell(4).setCellValue("user" + i + "@test.com");
+        }
+        workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        workbook.close();
+        // POI 写出的字符串都在共享字符串表里，改成 Excel 之外的工具常写的内联字符串
+        Pattern strings = Pattern.compile("<c r=\"([BEF])(\\d+)\" t=\"s\"(?: s=\"\\d+\")?><v>\\d+</v></c>");
+        byte[] bytes = rewriteSheet(out.toByteArray(), xml -> {
+            assertTrue(xml.contains("<f>A3&amp;\"x\"</f>"));
+            Matcher matcher = strings.matcher(xml);
+            StringBuilder inline = new StringBuilder();
+            while (matcher.find()) {
+                String column = matcher.group(1);
+                int row = Integer.parseInt(matcher.group(2));
+                String text = row == 1 ? headers[column.charAt(0) - 'A']
+                        : column.equals("B") ? "<r><t>no</t></r><r><t xml:space=\"preserve\">te " + row + "</t></r>" : null;
+                matcher.appendReplacement(inline, text == null ? "$0"
+                        : "<c r=\"$1$2\" t=\"inlineStr\"><is>" + (row == 1 ? "<t>" + text + "</t>" : text) + "</is></c>");
+            }
+            matcher.appendTail(inline);
+            assertTrue(inline.indexOf("<c r=\"E1\" t=\"inlineStr\">") >= 0);
+            assertTrue(inline.indexOf("<c r=\"B4\" t=\"inlineStr\">") >= 0);
+            return inline.toString();
+        });
+
+        List<User> users = ExcelReader.readStreaming(new ByteArrayInputStream(bytes), User.class);
+        assertEquals(3, users.size());
+        for (int i = 0; i < users.size(); i++) {
+            assertEquals("user" + (i + 1), users.get(i).getName());
+            assertEquals(21 + i, users.get(i).getAge());
+            assertEquals("user" + (i + 1) + "@test.com", users.get(i).getEmail());
+        }
+
+        // 和 usermodel 读到的一致
+        List<User> usermodel = ExcelReader.read(new ByteArrayInputStream(bytes), User.class);
+        assertEquals(3, usermodel.size());
+        for (int i = 0; i < usermodel.size(); i++) {
+            assertEquals(usermodel.get(i).getName(), users.get(i).getName());
+            assertEquals(usermodel.get(i).getAge(), users.get(i).getAge());
+            assertEquals(usermodel.get(i).getEmail(), users.get(i).getEmail());
+        }
+    }
+
+    /**
+     * Rewrites the formulas of the first sheet of a workbook.
+     */
+    private static byte[] shareFormulas(byte[] xlsx, Map<String, String> replacements) throws Exception {
+        return rewriteSheet(xlsx, xml -> {
+            for (Map.Entry<String, String> replacement : replacements.entrySet()) {
+                assertTrue(xml.contains(replacement.getKey()), replacement.getKey());
+                xml = xml.replace(replacement.getKey(), replacement.getValue());
+            }
+            return xml;
+        });
+    }
+
+    /**
+     * Rewrites the xml of the first sheet of a workbook.
+     */
+    private static byte[] rewriteSheet(byte[] xlsx, UnaryOperator<String> rewrite) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(xlsx));
+             ZipOutputStream rewritten = new ZipOutputStream(out)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                byte[] content = zip.readAllBytes();
+                if (entry.getName().equals("xl/worksheets/sheet1.xml")) {
+                    content = rewrite.apply(new String(content, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+                }
+                rewritten.putNextEntry(new ZipEntry(entry.getName()));
+                rewritten.write(content);
+                rewritten.closeEntry();
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    void readMetrics() throws Exception {
+        Workbook workbook = new XSSFWorkbook();
+        Sheet sheet = workbook.createSheet("sheet1");
+        Row header = sheet.createRow(0);
+        header.createCell(0).setCellValue("姓名");
+        header.createCell(1).setCellValue("年龄");
+        for (int i = 1; i <= 300; i++) {
+            Row row = sheet.createRow(i);
+            if (i % 100 == 0) {
+                // 空行
+                row.createCell(0).setCellValue(" ");
+                continue;
+            }
+            row.createCell(0).setCellValue("user" + i);
+            if (i == 7) {
+                row.createCell(1).setCellValue("seven");
+            } else {
+                row.createCell(1).setCellValue(i);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        workbook.close();
+        byte[] bytes = out.toByteArray();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (ReadOptions.ReadOptionsBuilder builder : List.of(ReadOptions.builder(),
+                    ReadOptions.builder().conversionExecutor(executor).conversionBatchSize(50))) {
+                List<ReadMetrics> metrics = new ArrayList<>();
+                List<User> users = ExcelReader.readStreaming(new ByteArrayInputStream(bytes), User.class,
+                        builder.errorHandler(error -> {
+                        }).readListener(metrics::add).build());
+
+                assertEquals(296, users.size());
+                assertEquals(1, metrics.size());
+                ReadMetrics readMetrics = metrics.get(0);
+                assertEquals(bytes.length, readMetrics.getBytesRead());
+                assertEquals(297, readMetrics.getRows());
+                assertEquals(3, readMetrics.getSkippedRows());
+                assertEquals(1, readMetrics.getFailedRows());
+                assertTrue(readMetrics.getConversionTime().toNanos() > 0);
+                assertTrue(readMetrics.getParseTime().toNanos() > 0);
+                assertTrue(readMetrics.getElapsed().compareTo(readMetrics.getParseTime()) >= 0);
+
+                // 交给 batchSink 的时间不算解析时间
+                metrics.clear();
+                ExcelReader.read(new ByteArrayInputStream(bytes), User.class, batch -> {
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }, 10, builder.readListener(metrics::add).build());
+                readMetrics = metrics.get(0);
+                assertTrue(readMetrics.getParseTime().toNanos() > 0);
+                assertTrue(readMetrics.getElapsed().minus(readMetrics.getParseTime()).toMillis() >= 250);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private byte[] createWorkbook() throws Exception {
+        // 1. 创建一个内存中的 Excel 文件
+        Workbook workbook = new XSSFWorkbook();
+        Sheet sheet = workbook.createSheet("sheet1");
+
+        // 2. 添加表头
+        Row header = sheet.createRow(0);
+        header.createCell(0).setCellValue("姓名");
+        header.createCell(1).setCellValue("年龄");
+        header.createCell(2).setCellValue("邮箱");
+
+        // 3. 添加数据行
+        Row row1 = sheet.createRow(1);
+        row1.createCell(0).setCellValue("张三");
+        row1.createCell(1).setCellValue(28);
+        row1.createCell(2).setCellValue("zhangsan@example.com");
+
+        Row row2 = sheet.createRow(2);
+        row2.createCell(0).setCellValue("李四");
+        row2.createCell(1).setCellValue(32);
+        row2.createCell(2).setCellValue("lisi@example.com");
+
+        // 4. 写入 ByteArrayOutputStream
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        workbook.close();
+        return out.toByteArray();
+    }
+
+    private void assertUsers(List<User> users) {
+        assertNotNull(users);
+        assertEquals(2, users.size());
+
+        User user1 = users.get(0);
+        assertEquals("张三", user1.getName());
+        assertEquals(28, user1.getAge());
+        assertEquals("zhangsan@example.com", user1.getEmail());
+
+        User user2 = users.get(1);
+        assertEquals("李四", user2.getName());
+        assertEquals(32, user2.getAge());
+        assertEquals("lisi@example.com", user2.getEmail());
+    }
+
+    static class Account {
+
+        private LocalDate birthday;
+        private LocalDateTime createdAt;
+        private BigDecimal balance;
+        private long accountId;
+        private Boolean enabled;
+        private Object extra;
+
+        public LocalDate getBirthday() {
+            return birthday;
+        }
+
+        public void setBirthday(LocalDate birthday) {
+            this.birthday = birthday;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        public void setCreatedAt(LocalDateTime createdAt) {
+            this.createdAt = createdAt;
+        }
+
+        public BigDecimal getBalance() {
+            return balance;
+        }
+
+        public void setBalance(BigDecimal balance) {
+            this.balance = balance;
+        }
+
+        public long getAccountId() {
+            return accountId;
+        }
+
+        public void setAccountId(long accountId) {
+            this.accountId = accountId;
+        }
+
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Object getExtra() {
+            return extra;
+        }
+
+        public void setExtra(Object extra) {
+            this.extra = extra;
+        }
+    }
+
     static class User {
 
         @ExcelColumn("姓名")
@@ -114,4 +808,77 @@ class ExcelReaderTest {
             this.email = email;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Writes the rows to the first sheet, the 年龄 column as numbers, empty values as missing cells.
+     */
+    private static byte[] write(Workbook workbook, String[][] rows) throws Exception {
+        Sheet sheet = workbook.createSheet("sheet1");
+        for (int r = 0; r < rows.length; r++) {
+            Row row = sheet.createRow(r);
+            for (int c = 0; c < rows[r].length; c++) {
+                String value = rows[r][c];
+                if (value.isEmpty()) {
+                    continue;
+                }
+                if (r > 0 && "年龄".equals(rows[0][c])) {
+                    row.createCell(c).setCellValue(Double.parseDouble(value));
+                } else {
+                    row.createCell(c).setCellValue(value);
+                }
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        workbook.close();
+        return out.toByteArray();
+    }
+
+    static class Member {
+
+        @ExcelColumn("姓名")
+        private String name;
+
+        @ExcelColumn("年龄")
+        private int age;
+
+        @ExcelColumn("邮箱")
+        private String email;
+
+        protected Member() {
+        }
+
+        public Member(String name, int age, String email) {
+            this.name = name;
+            this.age = age;
+            this.email = email;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public void setEmail(String email) {
+            this.email = email;
+        }
+    }
+
+    record Person(@ExcelColumn("姓名") String name, @ExcelColumn("年龄") int age, @ExcelColumn("邮箱") String email) {
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExcelWriterTest {
+
+    @Test
+    void write() {
+        // 1. 写出超过窗口大小的行数
+        Stream<ExcelReaderTest.User> rows = IntStream.range(0, 250).mapToObj(i -> {
+            ExcelReaderTest.User user = new ExcelReaderTest.User();
+            user.setName("user" + i);
+            user.setAge(i);
+            user.setEmail("user" + i + "@example.com");
+            return user;
+        });
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExcelWriter.write(out, ExcelReaderTest.User.class, rows);
+
+        // 2. 用 ExcelReader 读回验证
+        List<ExcelReaderTest.User> users = ExcelReader.readStreaming(new ByteArrayInputStream(out.toByteArray()),
+                ExcelReaderTest.User.class);
+
+        assertEquals(250, users.size());
+        assertEquals("user0", users.get(0).getName());
+        assertEquals(249, users.get(249).getAge());
+        assertEquals("user249@example.com", users.get(249).getEmail());
+    }
+
+    @Test
+    void writeStreaming() {
+        List<ExcelReaderTest.User> rows = IntStream.range(0, 100).mapToObj(i -> {
+            ExcelReaderTest.User user = new ExcelReaderTest.User();
+            user.setName("<user & " + i + ">");
+            user.setAge(i);
+            return user;
+        }).toList();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExcelWriter.writeStreaming(out, ExcelReaderTest.User.class, rows.iterator(), "users");
+
+        // usermodel 读回，验证生成的包结构完整
+        List<ExcelReaderTest.User> users = ExcelReader.read(new ByteArrayInputStream(out.toByteArray()),
+                ExcelReaderTest.User.class, "users");
+
+        assertEquals(100, users.size());
+        assertEquals("<user & 0>", users.get(0).getName());
+        assertEquals(99, users.get(99).getAge());
+        assertNull(users.get(99).getEmail());
+    }
+
+    @Test
+    void writeLargeNumbers() throws Exception {
+        // 超过 15 位有效数字的数写成文本，读回不丢精度
+        List<Amount> rows = List.of(
+                new Amount(1234567890123456789L, new BigDecimal("12345678901234567.89"), new BigInteger("98765432109876543210")),
+                new Amount(123456789012345L, new BigDecimal("0.125"), BigInteger.valueOf(1_000_000)));
+        for (boolean streaming : new boolean[]{false, true}) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            if (streaming) {
+                ExcelWriter.writeStreaming(out, Amount.class, rows.iterator(), ExcelWriter.DEFAULT_SHEET_NAME);
+            } else {
+                ExcelWriter.write(out, Amount.class, rows);
+            }
+
+            List<Amount> amounts = ExcelReader.read(new ByteArrayInputStream(out.toByteArray()), Amount.class);
+            assertEquals(rows, amounts);
+            try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+                Sheet sheet = workbook.getSheetAt(0);
+                for (int i = 0; i < 3; i++) {
+                    assertEquals(CellType.STRING, sheet.getRow(1).getCell(i).getCellType());
+                    assertEquals(CellType.NUMERIC, sheet.getRow(2).getCell(i).getCellType());
+                }
+            }
+        }
+    }
+
+    @Test
+    void writeRowLimit() {
+        // 超出 sheet 的行数上限时明确报错，而不是写出无效的文件
+        Iterator<ExcelReaderTest.User> rows = Stream.generate(ExcelReaderTest.User::new).iterator();
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> ExcelWriter.writeStreaming(OutputStream.nullOutputStream(), ExcelReaderTest.User.class, rows,
+                        "users"));
+        assertTrue(e.getMessage().contains("1048575"));
+    }
+
+    @Test
+    void writeSheetName() {
+        // 两种写法拒绝同样的 sheet 名称
+        for (String sheetName : new String[]{"", "a".repeat(32), "a/b", "a:b", "[a]", "a?", "'a"}) {
+            assertThrows(IllegalArgumentException.class, () -> ExcelWriter.write(OutputStream.nullOutputStream(),
+                    ExcelReaderTest.User.class, List.<ExcelReaderTest.User>of().iterator(), sheetName, 100), sheetName);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertThrows(IllegalArgumentException.class, () -> ExcelWriter.writeStreaming(out,
+                    ExcelReaderTest.User.class, List.<ExcelReaderTest.User>of().iterator(), sheetName), sheetName);
+            assertEquals(0, out.size());
+        }
+    }
+
+    record Amount(Long id, BigDecimal amount, BigInteger count) {
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class RowMapperTest {
+
+    @Test
+    void cached() {
+        RowMapper<Item> mapper = RowMapper.of(Item.class, List.of("名称", "数量"));
+
+        assertSame(mapper, RowMapper.of(Item.class, new ArrayList<>(List.of("名称", "数量"))));
+        Item item = map(mapper, "apple", "3");
+        assertEquals("apple", item.getName());
+        assertEquals(3, item.getCount());
+    }
+
+    @Test
+    void cachedByHeaderOrder() {
+        RowMapper<Item> mapper = RowMapper.of(Item.class, List.of("名称", "数量"));
+        RowMapper<Item> reversed = RowMapper.of(Item.class, List.of("数量", "名称"));
+
+        // 列顺序不同，编译出不同的 mapper
+        assertNotSame(mapper, reversed);
+        assertSame(reversed, RowMapper.of(Item.class, List.of("数量", "名称")));
+        Item item = map(reversed, "3", "apple");
+        assertEquals("apple", item.getName());
+        assertEquals(3, item.getCount());
+    }
+
+    @Test
+    void cacheLimit() {
+        // 每个类最多缓存 64 种表头
+        for (int i = 0; i < 64; i++) {
+            List<String> headers = List.of("名称", "column" + i);
+            assertSame(RowMapper.of(Capped.class, headers), RowMapper.of(Capped.class, headers));
+        }
+
+        List<String> headers = List.of("名称", "column64");
+        RowMapper<Capped> mapper = RowMapper.of(Capped.class, headers);
+        assertNotSame(mapper, RowMapper.of(Capped.class, headers));
+        assertEquals("apple", map(mapper, "apple", "x").getName());
+        assertSame(RowMapper.of(Capped.class, List.of("名称", "column0")),
+                RowMapper.of(Capped.class, List.of("名称", "column0")));
+    }
+
+    @Test
+    void blankKeepsDefault() {
+        RowMapper<Item> mapper = RowMapper.of(Item.class, List.of("名称", "数量"));
+
+        Item item = map(mapper, "", "");
+
+        assertEquals("unnamed", item.getName());
+        assertEquals(7, item.getCount());
+    }
+
+    @Test
+    void blankCellsKeepDefault() throws Exception {
+        // xlsx 走流式解析，xls 走 usermodel
+        for (Workbook workbook : new Workbook[]{new XSSFWorkbook(), new HSSFWorkbook()}) {
+            Sheet sheet = workbook.createSheet("sheet1");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("名称");
+            header.createCell(1).setCellValue("数量");
+            // 缺少的单元格
+            sheet.createRow(1).createCell(0).setCellValue("apple");
+            // 没有值的单元格
+            Row row = sheet.createRow(2);
+            row.createCell(0);
+            row.createCell(1).setCellValue(2);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            workbook.write(out);
+            workbook.close();
+
+            List<Item> items = ExcelReader.readStreaming(new ByteArrayInputStream(out.toByteArray()), Item.class);
+
+            assertEquals(2, items.size());
+            assertEquals("apple", items.get(0).getName());
+            assertEquals(7, items.get(0).getCount());
+            assertEquals("unnamed", items.get(1).getName());
+            assertEquals(2, items.get(1).getCount());
+        }
+    }
+
+    /**
+     * Decodes text cells like the csv reader and maps them, indexed by column.
+     */
+    private static <T> T map(RowMapper<T> mapper, String... cells) {
+        RawCell cell = new RawCell();
+        Object[] values = new Object[mapper.size()];
+        for (int column = 0; column < cells.length; column++) {
+            int slot = mapper.slot(column);
+            if (slot >= 0) {
+                cell.load(cells[column]);
+                values[slot] = mapper.decode(slot, cell);
+            }
+        }
+        return mapper.map(values);
+    }
+
+    static class Item {
+
+        @ExcelColumn("名称")
+        private String name = "unnamed";
+
+        @ExcelColumn("数量")
+        private int count = 7;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+    }
+
+    static class Capped {
+
+        @ExcelColumn("名称")
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
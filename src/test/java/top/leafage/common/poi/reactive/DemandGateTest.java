@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi.reactive;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DemandGateTest {
+
+    @Test
+    void acquire() {
+        DemandGate gate = new DemandGate();
+        gate.request(2);
+
+        assertTrue(gate.acquire());
+        assertTrue(gate.acquire());
+    }
+
+    @Test
+    void acquireWaits() throws Exception {
+        DemandGate gate = new DemandGate();
+        CompletableFuture<Boolean> acquired = CompletableFuture.supplyAsync(gate::acquire);
+
+        // 没有需求时等待
+        Thread.sleep(100);
+        assertFalse(acquired.isDone());
+
+        gate.request(1);
+        assertTrue(acquired.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void acquireUnbounded() {
+        DemandGate gate = new DemandGate();
+        gate.request(Long.MAX_VALUE);
+        gate.request(1);
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(gate.acquire());
+        }
+    }
+
+    @Test
+    void cancel() throws Exception {
+        DemandGate gate = new DemandGate();
+        CompletableFuture<Boolean> acquired = CompletableFuture.supplyAsync(gate::acquire);
+
+        Thread.sleep(100);
+        gate.cancel();
+
+        // 取消后释放等待的线程，之后也不再放行
+        assertFalse(acquired.get(5, TimeUnit.SECONDS));
+        gate.request(1);
+        assertFalse(gate.acquire());
+    }
+}
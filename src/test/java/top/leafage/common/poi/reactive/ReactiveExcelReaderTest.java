@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi.reactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.codec.multipart.FilePart;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import top.leafage.common.poi.ExcelColumn;
+import top.leafage.common.poi.ExcelWriter;
+import top.leafage.common.poi.ReadOptions;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReactiveExcelReaderTest {
+
+    private static final Path TEMP_DIR = Path.of(System.getProperty("java.io.tmpdir"));
+
+    @Test
+    void readInMemory() {
+        BytesFilePart filePart = new BytesFilePart(workbook(1000, -1));
+        Set<Path> tempFiles = tempFiles();
+
+        StepVerifier.create(ReactiveExcelReader.read(filePart, Person.class, ReadOptions.defaults(),
+                        ReactiveExcelReader.DEFAULT_IN_MEMORY_THRESHOLD))
+                .assertNext(people -> assertEquals(1000, people.size()))
+                .verifyComplete();
+
+        // 小于阈值时不落盘
+        assertFalse(filePart.transferred.get());
+        assertEquals(tempFiles, tempFiles());
+    }
+
+    @Test
+    void readSpooled() {
+        byte[] bytes = workbook(1000, -1);
+        BytesFilePart filePart = new BytesFilePart(bytes);
+        Set<Path> tempFiles = tempFiles();
+
+        StepVerifier.create(ReactiveExcelReader.read(filePart, Person.class, ReadOptions.defaults(),
+                        bytes.length - 1))
+                .assertNext(people -> assertEquals(1000, people.size()))
+                .verifyComplete();
+
+        assertTrue(filePart.transferred.get());
+        awaitTempFiles(tempFiles);
+    }
+
+    @Test
+    void readUnknownLength() {
+        BytesFilePart filePart = new BytesFilePart(workbook(10, -1), false);
+
+        // 长度未知时按大文件处理
+        StepVerifier.create(ReactiveExcelReader.read(filePart, Person.class, ReadOptions.defaults(),
+                        ReactiveExcelReader.DEFAULT_IN_MEMORY_THRESHOLD))
+                .assertNext(people -> assertEquals(10, people.size()))
+                .verifyComplete();
+
+        assertTrue(filePart.transferred.get());
+    }
+
+    @Test
+    void readInMemoryError() {
+        BytesFilePart filePart = new BytesFilePart("not a workbook".getBytes());
+
+        StepVerifier.create(ReactiveExcelReader.read(filePart, Person.class, ReadOptions.defaults(),
+                        ReactiveExcelReader.DEFAULT_IN_MEMORY_THRESHOLD))
+                .expectError()
+                .verify(Duration.ofSeconds(10));
+
+        assertFalse(filePart.transferred.get());
+    }
+
+    @Test
+    void readSpooledError() {
+        BytesFilePart filePart = new BytesFilePart("not a workbook".getBytes());
+        Set<Path> tempFiles = tempFiles();
+
+        StepVerifier.create(ReactiveExcelReader.read(filePart, Person.class, ReadOptions.defaults(), 0))
+                .expectError()
+                .verify(Duration.ofSeconds(10));
+
+        // 出错时临时文件也被删除
+        assertTrue(filePart.transferred.get());
+        awaitTempFiles(tempFiles);
+    }
+
+    @Test
+    void stream() {
+        FilePart filePart = new BytesFilePart(workbook(1000, -1));
+
+        StepVerifier.create(ReactiveExcelReader.stream(filePart, Person.class))
+                .assertNext(person -> assertEquals("person0", person.name()))
+                .expectNextCount(998)
+                .assertNext(person -> assertEquals(999, person.age()))
+                .verifyComplete();
+    }
+
+    @Test
+    void streamBackpressure() {
+        FilePart filePart = new BytesFilePart(workbook(1000, -1));
+        Person.CREATED.set(0);
+
+        // 没有需求时解析线程等待，只多映射出一行
+        StepVerifier.create(ReactiveExcelReader.stream(filePart, Person.class), 0)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(200))
+                .thenRequest(5)
+                .expectNextCount(5)
+                .expectNoEvent(Duration.ofMillis(200))
+                .then(() -> assertTrue(Person.CREATED.get() <= 6))
+                .thenRequest(2)
+                .expectNextCount(2)
+                .expectNoEvent(Duration.ofMillis(200))
+                .then(() -> assertTrue(Person.CREATED.get() <= 8))
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void streamCancel() throws InterruptedException {
+        FilePart filePart = new BytesFilePart(workbook(1000, -1));
+        Set<Path> tempFiles = tempFiles();
+        Person.CREATED.set(0);
+
+        StepVerifier.create(ReactiveExcelReader.stream(filePart, Person.class), 3)
+                .expectNextCount(3)
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+
+        // 取消后解析停止，不再映射后续的行
+        Thread.sleep(200);
+        assertTrue(Person.CREATED.get() <= 4);
+        awaitTempFiles(tempFiles);
+    }
+
+    @Test
+    void streamError() {
+        FilePart filePart = new BytesFilePart("not a workbook".getBytes());
+        Set<Path> tempFiles = tempFiles();
+
+        StepVerifier.create(ReactiveExcelReader.stream(filePart, Person.class))
+                .expectError()
+                .verify(Duration.ofSeconds(10));
+
+        awaitTempFiles(tempFiles);
+    }
+
+    @Test
+    void streamErrorMidSheet() {
+        FilePart filePart = new BytesFilePart(workbook(1000, 500));
+        ReadOptions options = ReadOptions.builder().errorHandler(error -> {
+            throw new IllegalStateException("row " + error.getRowNum());
+        }).build();
+
+        // 已发出的行不受影响，错误随后结束 flux
+        StepVerifier.create(ReactiveExcelReader.stream(filePart, Person.class, options), 10)
+                .expectNextCount(10)
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextCount(490)
+                .expectErrorMessage("row 502")
+                .verify(Duration.ofSeconds(10));
+    }
+
+    /**
+     * Lists the spooled uploads in the temporary directory.
+     */
+    private static Set<Path> tempFiles() {
+        try (Stream<Path> files = Files.list(TEMP_DIR)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("excel-"))
+                    .collect(Collectors.toSet());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Waits until the spooled uploads are the same as before, the file is deleted asynchronously.
+     */
+    private static void awaitTempFiles(Set<Path> expected) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!expected.equals(tempFiles()) && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(expected, tempFiles());
+    }
+
+    /**
+     * Writes a workbook of people, the age of row {@code badRow} is not a number.
+     */
+    private static byte[] workbook(int count, int badRow) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExcelWriter.write(out, RawPerson.class, IntStream.range(0, count)
+                .mapToObj(i -> new RawPerson("person" + i, i == badRow ? "x" : String.valueOf(i))));
+        return out.toByteArray();
+    }
+
+    record Person(@ExcelColumn("姓名") String name, @ExcelColumn("年龄") int age) {
+
+        static final AtomicInteger CREATED = new AtomicInteger();
+
+        Person {
+            CREATED.incrementAndGet();
+        }
+    }
+
+    record RawPerson(@ExcelColumn("姓名") String name, @ExcelColumn("年龄") String age) {
+    }
+
+    /**
+     * An upload of fixed content, emitted in small buffers.
+     */
+    static class BytesFilePart implements FilePart {
+
+        private static final int CHUNK_SIZE = 8192;
+
+        private final byte[] bytes;
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        private final AtomicBoolean transferred = new AtomicBoolean();
+
+        BytesFilePart(byte[] bytes) {
+            this(bytes, true);
+        }
+
+        BytesFilePart(byte[] bytes, boolean knownLength) {
+            this.bytes = bytes;
+            if (knownLength) {
+                this.headers.setContentLength(bytes.length);
+            }
+        }
+
+        @Override
+        public String filename() {
+            return "test.xlsx";
+        }
+
+        @Override
+        public Mono<Void> transferTo(Path dest) {
+            transferred.set(true);
+            return DataBufferUtils.write(content(), dest);
+        }
+
+        @Override
+        public String name() {
+            return "file";
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return headers;
+        }
+
+        @Override
+        public Flux<DataBuffer> content() {
+            return Flux.range(0, (bytes.length + CHUNK_SIZE - 1) / CHUNK_SIZE)
+                    .map(i -> DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(bytes, i * CHUNK_SIZE,
+                            Math.min(CHUNK_SIZE, bytes.length - i * CHUNK_SIZE))));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2025.  little3201.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package top.leafage.common.poi.reactive;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import top.leafage.common.poi.ExcelColumn;
+import top.leafage.common.poi.ExcelReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReactiveExcelWriterTest {
+
+    @Test
+    void write() {
+        Flux<DataBuffer> content = ReactiveExcelWriter.write(people(1000), Person.class);
+
+        StepVerifier.create(DataBufferUtils.join(content))
+                .assertNext(buffer -> {
+                    List<Person> people = ExcelReader.read(buffer.asInputStream(true), Person.class);
+
+                    assertEquals(1000, people.size());
+                    assertEquals("person0", people.get(0).name());
+                    assertEquals(999, people.get(999).age());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void writeError() {
+        Flux<Person> rows = Flux.concat(people(1000), Flux.error(new IllegalStateException("source failed")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // 源出错时结果以同样的错误结束
+        StepVerifier.create(ReactiveExcelWriter.write(rows, Person.class))
+                .thenConsumeWhile(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    out.writeBytes(bytes);
+                    return true;
+                })
+                .expectErrorMessage("source failed")
+                .verify(Duration.ofSeconds(10));
+
+        // 已发出的内容不是完整的文件
+        assertThrows(Exception.class, () -> new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray())).close());
+    }
+
+    @Test
+    void writeCancel() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Flux<Person> rows = people(Integer.MAX_VALUE).doOnCancel(() -> cancelled.set(true));
+
+        StepVerifier.create(ReactiveExcelWriter.write(rows, Person.class), 1)
+                .consumeNextWith(DataBufferUtils::release)
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+
+        // 取消结果后，写出线程停止并取消源
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!cancelled.get() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertTrue(cancelled.get());
+    }
+
+    private static Flux<Person> people(int count) {
+        return Flux.range(0, count).map(i -> new Person("person" + i, i));
+    }
+
+    record Person(@ExcelColumn("姓名") String name, @ExcelColumn("年龄") int age) {
+    }
+}